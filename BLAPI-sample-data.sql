@@ -0,0 +1,31 @@
+USE [BLAPI]
+GO
+
+INSERT INTO Author (AuthorID,FirstName,LastName) VALUES (1,'Mark','Haddon')
+GO
+INSERT INTO Author (AuthorID,FirstName,LastName) VALUES (2,'Viktor','Farcic')
+GO
+INSERT INTO Author (AuthorID,FirstName,LastName) VALUES (3,'Alex','Garcia')
+GO
+INSERT INTO Author (AuthorID,FirstName,LastName) VALUES (4,'Malcolm','McDonald')
+GO
+
+INSERT INTO Book (BookID,Title,ISBN,IsbnKey) VALUES (1,'The Curious Incident of the Dog in the Night-Time','978-0-099-45025-2','9780099450252')
+GO
+INSERT INTO Book (BookID,Title,ISBN,IsbnKey) VALUES (2,'Test-Driven Java Development','978-1-78398-742-9','9781783987429')
+GO
+INSERT INTO Book (BookID,Title,ISBN,IsbnKey) VALUES (3,'Web Security For Developers','978-1-59327-994-3','9781593279943')
+GO
+INSERT INTO Book (BookID,Title,ISBN,IsbnKey) VALUES (4,'A Spot of Bother','978-0-307-38769-1','9780307387691')
+GO
+
+INSERT INTO Book_Author (BookID,AuthorID) VALUES (1,1)
+GO
+INSERT INTO Book_Author (BookID,AuthorID) VALUES (2,2)
+GO
+INSERT INTO Book_Author (BookID,AuthorID) VALUES (2,3)
+GO
+INSERT INTO Book_Author (BookID,AuthorID) VALUES (3,4)
+GO
+INSERT INTO Book_Author (BookID,AuthorID) VALUES (4,1)
+GO
\ No newline at end of file
@@ -0,0 +1,54 @@
+package api.book_list.benchmark;
+
+import api.book_list.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes an author linked to every book of a 10k catalog. Each iteration deletes exactly
+ * one author, linked freshly in the iteration setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AuthorDeleteBenchmark {
+
+    private static final int BOOKS = 10_000;
+    private static final int AUTHORS = 100;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private JdbcTemplate jdbc;
+    private int authorId = 1_000_000;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("author-delete", BOOKS, AUTHORS);
+        bookService = context.getBean(BookService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void linkAuthorToAllBooks() {
+        authorId++;
+        jdbc.update("INSERT INTO Author (AuthorID, FirstName, LastName, Version) VALUES (?, 'Prolific', 'Author', 0)", authorId);
+        jdbc.update("INSERT INTO Book_Author (BookID, AuthorID) SELECT BookID, ? FROM Book", authorId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deleteAuthor() {
+        bookService.deleteAuthor(authorId);
+    }
+
+}
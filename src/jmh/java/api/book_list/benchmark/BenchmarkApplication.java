@@ -0,0 +1,32 @@
+package api.book_list.benchmark;
+
+import api.book_list.BookListApplication;
+import api.book_list.index.CatalogIndexLoader;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application without a web server against its own in-memory H2 database,
+ * filled by {@link CatalogGenerator} with the default seed.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, int books, int authors) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookListApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        new CatalogGenerator(CatalogGenerator.DEFAULT_SEED).populate(context.getBean(JdbcTemplate.class), books, authors);
+        context.getBean(CatalogIndexLoader.class).load();
+        return context;
+    }
+
+}
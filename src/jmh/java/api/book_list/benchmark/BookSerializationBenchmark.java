@@ -0,0 +1,62 @@
+package api.book_list.benchmark;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a book the way the controller's message converter does, once without a view
+ * and once under each of the request views declared on {@link Book}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSerializationBenchmark {
+
+    private Book book;
+    private ObjectWriter defaultWriter;
+    private ObjectWriter postAndPatchWriter;
+    private ObjectWriter putWriter;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        defaultWriter = objectMapper.writer();
+        postAndPatchWriter = objectMapper.writerWithView(Book.PostAndPatchBookWithAuthorIdView.class);
+        putWriter = objectMapper.writerWithView(Book.PutBookWithAuthorIdView.class);
+
+        List<Author> authors = List.of(new Author("Mark", "Haddon"), new Author("Viktor", "Farcic"), new Author("Alex", "Garcia"));
+        for (int i = 0; i < authors.size(); i++) {
+            authors.get(i).setId(i + 1);
+        }
+        book = new Book("The Curious Incident of the Dog in the Night-Time", "978-0-099-45025-2", new LinkedHashSet<>(authors));
+        book.setId(1);
+    }
+
+    @Benchmark
+    public byte[] writeWithoutView() throws JsonProcessingException {
+        return defaultWriter.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] writePostAndPatchView() throws JsonProcessingException {
+        return postAndPatchWriter.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] writePutView() throws JsonProcessingException {
+        return putWriter.writeValueAsBytes(book);
+    }
+
+}
@@ -0,0 +1,57 @@
+package api.book_list.benchmark;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import api.book_list.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookWriteBenchmark {
+
+    private static final int BOOKS = 1_000;
+    private static final int AUTHORS = 100;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private Random random;
+    private int nextIsbn;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("book-write", BOOKS, AUTHORS);
+        bookService = context.getBean(BookService.class);
+        random = new Random(CatalogGenerator.DEFAULT_SEED);
+        nextIsbn = BOOKS + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book saveBook() {
+        Author author = new Author();
+        author.setId(1 + random.nextInt(AUTHORS));
+        return bookService.saveBook(new Book("Benchmark Book", CatalogGenerator.isbn(nextIsbn++), Set.of(author)));
+    }
+
+    @Benchmark
+    public Book changeBook() {
+        int id = 1 + random.nextInt(BOOKS);
+        Book editedBook = new Book();
+        editedBook.setTitle("Changed Book " + id);
+        return bookService.changeBook(id, editedBook, null);
+    }
+
+}
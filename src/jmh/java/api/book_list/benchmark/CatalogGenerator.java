@@ -0,0 +1,126 @@
+package api.book_list.benchmark;
+
+import api.book_list.entity.Isbn;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic catalog for benchmarks: the same seed and sizes always produce the same rows,
+ * so results stay comparable between commits. Rows are inserted with plain JDBC batches and
+ * the id sequences are moved past them, leaving room for entities saved by the benchmarks.
+ * By default every book has one to three authors picked uniformly; with an author skew the
+ * catalog looks like a real one instead, see {@link #skewedAuthors}.
+ */
+public class CatalogGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int MAX_AUTHORS_PER_BOOK = 3;
+    private static final int MAX_SKEWED_AUTHORS_PER_BOOK = 8;
+    private static final double ADDITIONAL_AUTHOR_PROBABILITY = 0.35;
+    private static final String[] WORDS = {"Night", "Garden", "Java", "Secret", "River", "Winter", "Code", "Empire",
+            "Shadow", "Journey", "Silent", "Data", "Ocean", "Golden", "Lost", "Spring", "Machine", "City", "Dream", "Stone"};
+    private static final String[] FIRST_NAMES = {"Mark", "Viktor", "Alex", "Malcolm", "Anna", "Maria", "John", "Olga",
+            "Peter", "Eva"};
+    private static final String[] LAST_NAMES = {"Haddon", "Farcic", "Garcia", "McDonald", "Nowak", "Smith", "Kowalski",
+            "Tokarczuk", "Lem", "Szymborska"};
+
+    private final long seed;
+    private final double authorSkew;
+
+    public CatalogGenerator(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * @param authorSkew Zipf exponent of the author popularity, or 0 for uniformly picked authors
+     */
+    public CatalogGenerator(long seed, double authorSkew) {
+        this.seed = seed;
+        this.authorSkew = authorSkew;
+    }
+
+    /**
+     * ISBN of the n-th generated book; numbers above the catalog size are free for new books.
+     */
+    public static String isbn(int n) {
+        String digits = String.format("978%09d", n);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return "978-" + digits.substring(3) + "-" + (10 - sum % 10) % 10;
+    }
+
+    public void populate(JdbcTemplate jdbc, int books, int authors) {
+        Random random = new Random(seed);
+        ZipfDistribution authorPopularity = authorSkew > 0 ? new ZipfDistribution(authors, authorSkew) : null;
+
+        List<Object[]> authorRows = new ArrayList<>(authors);
+        for (int id = 1; id <= authors; id++) {
+            authorRows.add(new Object[]{id, pick(random, FIRST_NAMES), pick(random, LAST_NAMES)});
+        }
+        jdbc.batchUpdate("INSERT INTO Author (AuthorID, FirstName, LastName, Version) VALUES (?, ?, ?, 0)", authorRows);
+
+        List<Object[]> bookRows = new ArrayList<>(books);
+        List<Object[]> bookAuthorRows = new ArrayList<>(books * 2);
+        for (int id = 1; id <= books; id++) {
+            String isbn = isbn(id);
+            bookRows.add(new Object[]{id, title(random), isbn, Isbn.canonicalize(isbn)});
+            IntStream bookAuthors = authorPopularity == null
+                    ? random.ints(1 + random.nextInt(MAX_AUTHORS_PER_BOOK), 1, authors + 1).distinct()
+                    : skewedAuthors(random, authorPopularity, authors);
+            bookAuthors.forEach(authorId -> bookAuthorRows.add(new Object[]{bookRows.size(), authorId}));
+        }
+        jdbc.batchUpdate("INSERT INTO Book (BookID, Title, ISBN, IsbnKey, Version) VALUES (?, ?, ?, ?, 0)", bookRows);
+        jdbc.batchUpdate("INSERT INTO Book_Author (BookID, AuthorID) VALUES (?, ?)", bookAuthorRows);
+
+        jdbc.execute("ALTER SEQUENCE Author_SEQ RESTART WITH " + (authors + ID_ALLOCATION_SIZE));
+        jdbc.execute("ALTER SEQUENCE Book_SEQ RESTART WITH " + (books + ID_ALLOCATION_SIZE));
+    }
+
+    /**
+     * Draws the authors of one book: two thirds of the books have a single author and few have
+     * more than three, while author IDs are drawn by popularity, so author 1 writes the most
+     * books and most authors write only one or two.
+     */
+    private static IntStream skewedAuthors(Random random, ZipfDistribution popularity, int authors) {
+        int count = 1;
+        while (count < Math.min(MAX_SKEWED_AUTHORS_PER_BOOK, authors) && random.nextDouble() < ADDITIONAL_AUTHOR_PROBABILITY) {
+            count++;
+        }
+        Set<Integer> authorIds = new LinkedHashSet<>();
+        while (authorIds.size() < count) {
+            authorIds.add(popularity.sample(random));
+        }
+        return authorIds.stream().mapToInt(Integer::intValue);
+    }
+
+    /**
+     * A word as used in generated titles, e.g. for search queries.
+     */
+    public static String titleWord(Random random) {
+        return pick(random, WORDS);
+    }
+
+    private static String title(Random random) {
+        int length = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder(pick(random, WORDS));
+        for (int i = 1; i < length; i++) {
+            title.append(' ').append(pick(random, WORDS));
+        }
+        return title.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}
@@ -0,0 +1,41 @@
+package api.book_list.benchmark;
+
+import api.book_list.entity.Book;
+import api.book_list.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FindAllBooksBenchmark {
+
+    @Param({"1000", "100000"})
+    private int books;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("find-all-" + books, books, Math.max(10, books / 10));
+        bookService = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Book> findAllBooks() {
+        return bookService.findAllBooks();
+    }
+
+}
@@ -0,0 +1,83 @@
+package api.book_list.benchmark;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a book with three authors in each representation the API negotiates,
+ * using copies of the JSON object mapper like the message converters do. The payload size
+ * of each format is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private Book book;
+    private byte[] payload;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> json;
+            case "cbor" -> json.copyWith(new CBORFactory());
+            case "smile" -> json.copyWith(new SmileFactory());
+            case "protobuf" -> json.copyWith(new ProtobufFactory());
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        writer = objectMapper.writerFor(Book.class);
+        reader = objectMapper.readerFor(Book.class);
+        if (format.equals("protobuf")) {
+            ProtobufSchema schema = ProtobufSchemaLoader.std
+                    .loadNative(new ClassPathResource("protobuf/book_list.proto").getURL())
+                    .forType("Book");
+            writer = writer.with(schema);
+            reader = reader.with(schema);
+        }
+
+        List<Author> authors = List.of(new Author("Mark", "Haddon"), new Author("Viktor", "Farcic"), new Author("Alex", "Garcia"));
+        for (int i = 0; i < authors.size(); i++) {
+            authors.get(i).setId(i + 1);
+        }
+        book = new Book("The Curious Incident of the Dog in the Night-Time", "978-0-099-45025-2", new LinkedHashSet<>(authors));
+        book.setId(1);
+        payload = writer.writeValueAsBytes(book);
+        System.out.printf("%n%s payload: %d bytes%n", format, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+}
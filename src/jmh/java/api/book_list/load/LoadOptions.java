@@ -0,0 +1,53 @@
+package api.book_list.load;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code --name=value} arguments.
+ *
+ * @param rate requests per second over all workers, or 0 to send each request as soon as the
+ *             previous one of the worker has completed
+ * @param mix  relative weight of each {@link Operation}, by name
+ */
+record LoadOptions(int books, int authors, double skew, long seed, int threads, Duration warmup, Duration duration,
+                   int rate, Map<String, Integer> mix, String out, String baseline, double maxRegression) {
+
+    private static final String DEFAULT_MIX = "get-book=60,list-books=15,search=10,author-books=5,create=5,patch=5";
+
+    static LoadOptions parse(String[] args) {
+        SimpleCommandLinePropertySource properties = new SimpleCommandLinePropertySource(args);
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value(properties, "mix", DEFAULT_MIX).split(",")) {
+            String[] nameAndWeight = entry.split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Mix entries must look like get-book=60, found " + entry);
+            }
+            Operation.of(nameAndWeight[0].trim());
+            mix.put(nameAndWeight[0].trim(), Integer.valueOf(nameAndWeight[1].trim()));
+        }
+        return new LoadOptions(
+                Integer.parseInt(value(properties, "books", "10000")),
+                Integer.parseInt(value(properties, "authors", "2000")),
+                Double.parseDouble(value(properties, "skew", "1.0")),
+                Long.parseLong(value(properties, "seed", "42")),
+                Integer.parseInt(value(properties, "threads", "16")),
+                DurationStyle.detectAndParse(value(properties, "warmup", "10s")),
+                DurationStyle.detectAndParse(value(properties, "duration", "30s")),
+                Integer.parseInt(value(properties, "rate", "0")),
+                mix,
+                value(properties, "out", "target/load-result.json"),
+                properties.getProperty("baseline"),
+                Double.parseDouble(value(properties, "max-regression", "0.1")));
+    }
+
+    private static String value(SimpleCommandLinePropertySource properties, String name, String defaultValue) {
+        String value = properties.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+}
@@ -0,0 +1,221 @@
+package api.book_list.load;
+
+import api.book_list.BookListApplication;
+import api.book_list.benchmark.CatalogGenerator;
+import api.book_list.index.CatalogIndexLoader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application on a random port against its own in-memory H2 database, seeds it
+ * with a skewed {@link CatalogGenerator} catalog and sends a mix of reads and writes over
+ * HTTP from a number of workers. Latencies are recorded in HdrHistograms after the warmup
+ * and written as JSON, with the percentile distribution of all requests next to it in
+ * HdrHistogram's {@code .hgrm} format.
+ * <p>
+ * With a {@code --rate}, each request has a scheduled start and its latency is measured from
+ * there, so a stalled server is charged for the requests it delayed (no coordinated omission).
+ * With a {@code --baseline} result, the run fails if throughput or p99 latency of all requests
+ * is worse by more than {@code --max-regression}.
+ */
+public final class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookListApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            new CatalogGenerator(options.seed(), options.skew())
+                    .populate(context.getBean(JdbcTemplate.class), options.books(), options.authors());
+            context.getBean(CatalogIndexLoader.class).load();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Instant startedAt = Instant.now();
+            Recording recording = run(new Workload(baseUrl, options), options);
+            Report report = report(options, startedAt, recording);
+            write(report, recording, options.out());
+            if (options.baseline() != null && !withinBaseline(report, options)) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Recording run(Workload workload, LoadOptions options) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        long intervalNanos = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.threads()) / options.rate() : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            List<Future<Recording>> workers = new ArrayList<>();
+            for (int i = 0; i < options.threads(); i++) {
+                Random random = new Random(options.seed() + i);
+                long firstStart = start + (intervalNanos * i) / options.threads();
+                workers.add(executor.submit(() -> work(client, workload, random, firstStart, intervalNanos, measureFrom, end)));
+            }
+            Recording merged = new Recording();
+            for (Future<Recording> worker : workers) {
+                merged.add(worker.get());
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Recording work(HttpClient client, Workload workload, Random random,
+                                  long firstStart, long intervalNanos, long measureFrom, long end) throws InterruptedException {
+        Recording recording = new Recording();
+        long scheduled = firstStart;
+        while (true) {
+            long start;
+            if (intervalNanos > 0) {
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = scheduled;
+                scheduled += intervalNanos;
+            } else {
+                start = System.nanoTime();
+            }
+            if (start >= end) {
+                return recording;
+            }
+            Operation operation = workload.next(random);
+            boolean failed;
+            try {
+                failed = client.send(workload.request(operation, random), HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            }
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+            if (start >= measureFrom) {
+                recording.record(operation, latencyMicros, failed);
+            }
+        }
+    }
+
+    private static Report report(LoadOptions options, Instant startedAt, Recording recording) {
+        double seconds = options.duration().toNanos() / 1e9;
+        Map<String, Result> operations = new LinkedHashMap<>();
+        recording.histograms.forEach((operation, histogram) ->
+                operations.put(operation.label(), Result.of(histogram, recording.errors.get(operation), seconds)));
+        long errors = recording.errors.values().stream().mapToLong(Long::longValue).sum();
+        return new Report(options, startedAt, Result.of(recording.total(), errors, seconds), operations);
+    }
+
+    private static void write(Report report, Recording recording, String out) throws IOException {
+        Path path = Path.of(out);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build().enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(path.toFile(), report);
+        File percentiles = new File(out.replaceFirst("\\.json$", "") + ".hgrm");
+        try (PrintStream stream = new PrintStream(percentiles)) {
+            recording.total().outputPercentileDistribution(stream, 1.0);
+        }
+
+        System.out.printf("%n%-14s %10s %8s %12s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 us", "p99 us", "p999 us", "max us");
+        report.operations().forEach(LoadTest::print);
+        print("total", report.total());
+        System.out.printf("%nResults written to %s and %s%n", path, percentiles);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-14s %10d %8d %12.1f %10d %10d %10d %10d%n", label, result.requests(), result.errors(),
+                result.throughput(), result.p50Micros(), result.p99Micros(), result.p999Micros(), result.maxMicros());
+    }
+
+    private static boolean withinBaseline(Report report, LoadOptions options) throws IOException {
+        JsonNode baseline = new ObjectMapper().readTree(new File(options.baseline())).get("total");
+        double minThroughput = baseline.get("throughput").asDouble() * (1 - options.maxRegression());
+        double maxP99 = baseline.get("p99Micros").asDouble() * (1 + options.maxRegression());
+        boolean within = report.total().throughput() >= minThroughput && report.total().p99Micros() <= maxP99;
+        System.out.printf("Baseline %s: throughput %.1f (min %.1f), p99 %d us (max %.0f us): %s%n", options.baseline(),
+                report.total().throughput(), minThroughput, report.total().p99Micros(), maxP99, within ? "ok" : "REGRESSION");
+        return within;
+    }
+
+    /**
+     * Latencies and error counts by operation; each worker records its own, merged at the end.
+     */
+    private static final class Recording {
+
+        private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+        private void record(Operation operation, long latencyMicros, boolean failed) {
+            histograms.computeIfAbsent(operation, o -> new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+                    .recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            errors.merge(operation, failed ? 1L : 0L, Long::sum);
+        }
+
+        private void add(Recording other) {
+            other.histograms.forEach((operation, histogram) -> histograms
+                    .computeIfAbsent(operation, o -> new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+                    .add(histogram));
+            other.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+
+        private Histogram total() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+
+    }
+
+    record Result(long requests, long errors, double throughput, long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+
+        static Result of(Histogram histogram, long errors, double seconds) {
+            return new Result(histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        }
+
+    }
+
+    record Report(LoadOptions options, Instant startedAt, Result total, Map<String, Result> operations) {
+    }
+
+}
@@ -0,0 +1,35 @@
+package api.book_list.load;
+
+import java.util.Arrays;
+
+/**
+ * Requests a load test sends, named as in the {@code --mix} argument.
+ */
+enum Operation {
+
+    GET_BOOK("get-book"),
+    LIST_BOOKS("list-books"),
+    SEARCH("search"),
+    AUTHOR_BOOKS("author-books"),
+    CREATE("create"),
+    PATCH("patch");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation of(String label) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label.equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + label
+                        + ", expected one of " + Arrays.stream(values()).map(Operation::label).toList()));
+    }
+
+}
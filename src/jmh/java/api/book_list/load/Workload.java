@@ -0,0 +1,85 @@
+package api.book_list.load;
+
+import api.book_list.benchmark.CatalogGenerator;
+import api.book_list.benchmark.ZipfDistribution;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the requests of a load test against a catalog made by {@link CatalogGenerator}.
+ * Books and authors are read with the same popularity skew as the catalog was generated
+ * with, so a few of them are hot, as in production traffic. Shared by all workers; each
+ * passes its own {@link Random}.
+ */
+class Workload {
+
+    private static final int PAGE_SIZE = 50;
+
+    private final String baseUrl;
+    private final int books;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final ZipfDistribution bookPopularity;
+    private final ZipfDistribution authorPopularity;
+    private final AtomicInteger nextBook;
+
+    Workload(String baseUrl, LoadOptions options) {
+        this.baseUrl = baseUrl;
+        this.books = options.books();
+        this.operations = new Operation[options.mix().size()];
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : options.mix().entrySet()) {
+            operations[i] = Operation.of(entry.getKey());
+            total += entry.getValue();
+            cumulativeWeights[i++] = total;
+        }
+        if (total < 1) {
+            throw new IllegalArgumentException("Mix must contain an operation with a positive weight");
+        }
+        this.bookPopularity = new ZipfDistribution(options.books(), options.skew());
+        this.authorPopularity = new ZipfDistribution(options.authors(), options.skew());
+        this.nextBook = new AtomicInteger(options.books());
+    }
+
+    Operation next(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= value) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    HttpRequest request(Operation operation, Random random) {
+        return switch (operation) {
+            case GET_BOOK -> get("/api/books/" + bookPopularity.sample(random));
+            case LIST_BOOKS -> get("/api/books?after=" + random.nextInt(books) + "&limit=" + PAGE_SIZE);
+            case SEARCH -> get("/api/books/search?q=" + CatalogGenerator.titleWord(random).toLowerCase());
+            case AUTHOR_BOOKS -> get("/api/authors/" + authorPopularity.sample(random) + "/books");
+            case CREATE -> send("POST", "/api/books", """
+                    {"title": "%s", "isbn": "%s", "authors": [{"id": %d}]}"""
+                    .formatted(CatalogGenerator.titleWord(random), CatalogGenerator.isbn(nextBook.incrementAndGet()),
+                            authorPopularity.sample(random)));
+            case PATCH -> send("PATCH", "/api/books/" + bookPopularity.sample(random), """
+                    {"title": "%s"}""".formatted(CatalogGenerator.titleWord(random)));
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+}
@@ -0,0 +1,370 @@
+package api.book_list.changes;
+
+import api.book_list.dto.ChangeEvent;
+import api.book_list.exception.ResyncRequiredException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed of committed changes, served to polling and streaming consumers from a
+ * {@link ChangeRingBuffer}. Every instance inserts its changes into the journal, which numbers
+ * them, and tails the journal into its buffer, so any instance serves the changes of all of
+ * them. A single worker thread does both; it is woken by each publish and additionally runs at
+ * a fixed interval, which picks up the changes of other instances, retries failed journal
+ * writes and sends heartbeats. Each stream is written by its own task on a virtual thread, so a
+ * slow consumer only holds up itself until it falls a buffer behind and is told to resync.
+ * <p>
+ * Sequence numbers are drawn before the inserting transaction commits, so a lower number may
+ * become visible after a higher one. The tail stops at a gap until it is filled or
+ * {@code book-list.changes.gap-timeout} has passed; numbers that are never used, e.g. after a
+ * failed insert, are then skipped.
+ */
+@Slf4j
+@Component
+public class ChangeFeed implements SmartLifecycle {
+
+    private static final int JOURNAL_BATCH_SIZE = 500;
+
+    private final ChangeJournal journal;
+    private final int capacity;
+    private final int maxLimit;
+    private final Duration streamTimeout;
+    private final Duration flushInterval;
+    private final Duration heartbeatInterval;
+    private final Duration gapTimeout;
+    private final BlockingQueue<ChangeEvent> unjournaled;
+    private final AtomicInteger untailed = new AtomicInteger();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-sender-", 0).factory());
+
+    private volatile ChangeRingBuffer buffer;
+    private volatile boolean running;
+    private long purged;
+    private long gapAfter = -1;
+    private long gapSeenAt;
+
+    public ChangeFeed(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                      @Value("${book-list.changes.capacity:65536}") int capacity,
+                      @Value("${book-list.pagination.max-limit:1000}") int maxLimit,
+                      @Value("${book-list.changes.stream-timeout:30m}") Duration streamTimeout,
+                      @Value("${book-list.changes.flush-interval:1s}") Duration flushInterval,
+                      @Value("${book-list.changes.heartbeat-interval:15s}") Duration heartbeatInterval,
+                      @Value("${book-list.changes.gap-timeout:5s}") Duration gapTimeout) {
+        this.journal = new ChangeJournal(jdbc, new TransactionTemplate(transactionManager));
+        this.capacity = capacity;
+        this.maxLimit = maxLimit;
+        this.streamTimeout = streamTimeout;
+        this.flushInterval = flushInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.gapTimeout = gapTimeout;
+        this.unjournaled = new LinkedBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Restores the tail of the journal once the context is refreshed, before the web server
+     * accepts requests. Runs as a lifecycle start rather than during bean initialization, so
+     * a context that exits on refresh, like the CDS training run, does not need a database.
+     */
+    @Override
+    public void start() {
+        List<ChangeEvent> tail = journal.readLast(capacity);
+        purged = tail.isEmpty() ? 0 : tail.getFirst().seq() - 1;
+        ChangeRingBuffer restored = new ChangeRingBuffer(capacity, purged);
+        tail.forEach(restored::append);
+        buffer = restored;
+        worker.scheduleWithFixedDelay(this::drain, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        worker.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * Journals the remaining events and closes the open streams after the web server has stopped.
+     */
+    @Override
+    public void stop() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushJournal();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Records a change; to be called once the transaction that made it has committed.
+     */
+    public void publish(ChangeEvent.Entity entity, int id, ChangeEvent.Op op, Integer version) {
+        if (!unjournaled.offer(new ChangeEvent(0, entity, id, op, version, Instant.now()))) {
+            log.warn("Dropped the change of {} {}, {} changes are waiting to be journaled", entity, id, capacity);
+            return;
+        }
+        untailed.incrementAndGet();
+        if (drainPending.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    public long lastSequence() {
+        catchUp();
+        return buffer.lastSequence();
+    }
+
+    /**
+     * Returns up to {@code limit} changes following sequence number {@code since}, none if the
+     * journal holds changes up to {@code since} that this instance has not tailed yet.
+     *
+     * @throws ResyncRequiredException if the feed no longer holds all of them
+     */
+    public List<ChangeEvent> findChanges(long since, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        catchUp();
+        if (isAheadOfTail(since)) {
+            return List.of();
+        }
+        return buffer.readAfter(since, limit);
+    }
+
+    /**
+     * Opens a stream of the changes following {@code since}, named {@code change} and carrying
+     * their sequence number as event id. A consumer that falls behind receives a {@code resync}
+     * event and the stream is closed.
+     */
+    public SseEmitter subscribe(long since) {
+        catchUp();
+        if (!isAheadOfTail(since)) {
+            buffer.readAfter(since, 0); // rejects a stale cursor before the stream is opened
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wake(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Waits for the changes this instance published to be journaled and tailed, so that its
+     * clients see their own writes; at most one flush interval, as the journal may be down.
+     */
+    private void catchUp() {
+        if (untailed.get() == 0) {
+            return;
+        }
+        try {
+            worker.submit(this::drain).get(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            // served from what has been tailed so far
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Whether {@code since} lies ahead of the buffer but not of the journal, as for a consumer
+     * that polled another instance.
+     */
+    private boolean isAheadOfTail(long since) {
+        return since > buffer.lastSequence() && since <= journal.lastSequence();
+    }
+
+    private void drain() {
+        drainPending.set(false);
+        int journaled = flushJournal();
+        tailJournal();
+        untailed.addAndGet(-journaled);
+        subscribers.forEach(this::wake);
+    }
+
+    /**
+     * Inserts the published events into the journal; returns how many were inserted.
+     */
+    private int flushJournal() {
+        int journaled = 0;
+        try {
+            List<ChangeEvent> events;
+            while (!(events = unjournaled.stream().limit(JOURNAL_BATCH_SIZE).toList()).isEmpty()) {
+                journal.append(events);
+                events.forEach(event -> unjournaled.poll());
+                journaled += events.size();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing the change journal failed, retrying in {}", flushInterval, e);
+        }
+        return journaled;
+    }
+
+    /**
+     * Appends the journaled events following the buffer to it and purges the journal beyond
+     * a capacity.
+     */
+    private void tailJournal() {
+        try {
+            List<ChangeEvent> events;
+            do {
+                events = journal.readAfter(buffer.lastSequence(), JOURNAL_BATCH_SIZE);
+                for (ChangeEvent event : events) {
+                    if (event.seq() != buffer.lastSequence() + 1 && !gapExpired()) {
+                        return;
+                    }
+                    buffer.append(event);
+                }
+            } while (events.size() == JOURNAL_BATCH_SIZE);
+            long last = buffer.lastSequence();
+            if (last - purged > capacity + capacity / 4) {
+                journal.deleteUpTo(last - capacity);
+                purged = last - capacity;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reading the change journal failed, retrying in {}", flushInterval, e);
+        }
+    }
+
+    /**
+     * Whether the gap following the buffer has been open for the gap timeout.
+     */
+    private boolean gapExpired() {
+        if (gapAfter != buffer.lastSequence()) {
+            gapAfter = buffer.lastSequence();
+            gapSeenAt = System.nanoTime();
+        }
+        if (System.nanoTime() - gapSeenAt < gapTimeout.toNanos()) {
+            return false;
+        }
+        log.info("Skipping change sequence numbers after {} that were not journaled within {}", gapAfter, gapTimeout);
+        return true;
+    }
+
+    /**
+     * Schedules a send to the subscriber unless one is running, which then makes another pass.
+     */
+    private void wake(Subscriber subscriber) {
+        if (subscriber.wakeups.getAndIncrement() == 0) {
+            senders.execute(() -> push(subscriber));
+        }
+    }
+
+    private void push(Subscriber subscriber) {
+        int wakeups = subscriber.wakeups.get();
+        do {
+            if (!send(subscriber)) {
+                return;
+            }
+        } while ((wakeups = subscriber.wakeups.addAndGet(-wakeups)) != 0);
+    }
+
+    /**
+     * Sends the tailed events the subscriber has not seen and a pending heartbeat; returns
+     * false once the stream is closed.
+     */
+    private boolean send(Subscriber subscriber) {
+        try {
+            long unsent;
+            while ((unsent = buffer.lastSequence() - subscriber.cursor) > 0) {
+                List<ChangeEvent> events = buffer.readAfter(subscriber.cursor, (int) Math.min(maxLimit, unsent));
+                if (events.isEmpty()) {
+                    break;
+                }
+                for (ChangeEvent event : events) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.seq()))
+                            .name("change")
+                            .data(event, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = event.seq();
+                }
+            }
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            return true;
+        } catch (ResyncRequiredException e) {
+            subscribers.remove(subscriber);
+            try {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(e.getMessage()));
+                subscriber.emitter.complete();
+            } catch (IOException | IllegalStateException ignored) {
+                // the consumer is gone already
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+        }
+        return false;
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            wake(subscriber);
+        }
+    }
+
+    /**
+     * An open stream and the sequence number of the last event sent to it, which only the one
+     * running send task reads and writes.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger wakeups = new AtomicInteger();
+        private long cursor;
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package api.book_list.changes;
+
+import api.book_list.dto.ChangeEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * The {@code ChangeLog} table, which every instance appends its changes to and tails into its
+ * ring buffer. Sequence numbers are drawn from {@code ChangeLog_SEQ} on insert.
+ */
+class ChangeJournal {
+
+    private static final RowMapper<ChangeEvent> ROW_MAPPER = (rs, rowNum) -> new ChangeEvent(
+            rs.getLong("Seq"),
+            ChangeEvent.Entity.valueOf(rs.getString("Entity")),
+            rs.getInt("EntityID"),
+            ChangeEvent.Op.valueOf(rs.getString("Op")),
+            rs.getObject("Version", Integer.class),
+            rs.getTimestamp("ChangedAt").toInstant());
+
+    private final JdbcTemplate jdbc;
+    private final TransactionOperations transaction;
+
+    ChangeJournal(JdbcTemplate jdbc, TransactionOperations transaction) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Inserts the events in one transaction, ignoring their sequence numbers.
+     */
+    void append(List<ChangeEvent> events) {
+        transaction.executeWithoutResult(status -> jdbc.batchUpdate(
+                "INSERT INTO ChangeLog (Entity, EntityID, Op, Version, ChangedAt) VALUES (?, ?, ?, ?, ?)",
+                events, events.size(), (ps, event) -> {
+                    ps.setString(1, event.entity().name());
+                    ps.setInt(2, event.id());
+                    ps.setString(3, event.op().name());
+                    ps.setObject(4, event.version());
+                    ps.setTimestamp(5, Timestamp.from(event.timestamp()));
+                }));
+    }
+
+    /**
+     * Returns up to {@code limit} events following {@code seq} in sequence order.
+     */
+    List<ChangeEvent> readAfter(long seq, int limit) {
+        return jdbc.query("SELECT Seq, Entity, EntityID, Op, Version, ChangedAt FROM ChangeLog WHERE Seq > ? "
+                + "ORDER BY Seq OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY", ROW_MAPPER, seq, limit);
+    }
+
+    long lastSequence() {
+        return jdbc.queryForObject("SELECT COALESCE(MAX(Seq), 0) FROM ChangeLog", Long.class);
+    }
+
+    /**
+     * Returns the last {@code count} events in sequence order.
+     */
+    List<ChangeEvent> readLast(int count) {
+        return jdbc.query("SELECT Seq, Entity, EntityID, Op, Version, ChangedAt FROM ChangeLog WHERE Seq > "
+                + "(SELECT COALESCE(MAX(Seq), 0) FROM ChangeLog) - ? ORDER BY Seq", ROW_MAPPER, count);
+    }
+
+    void deleteUpTo(long seq) {
+        jdbc.update("DELETE FROM ChangeLog WHERE Seq <= ?", seq);
+    }
+
+}
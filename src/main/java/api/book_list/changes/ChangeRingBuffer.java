@@ -0,0 +1,90 @@
+package api.book_list.changes;
+
+import api.book_list.dto.ChangeEvent;
+import api.book_list.exception.ResyncRequiredException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded buffer of the most recent change events, filled in sequence order by the one thread
+ * tailing the journal, which stores each event in the slot its sequence number maps to,
+ * overwriting the event one capacity older. Readers never block the writer: they walk the slots
+ * after their cursor up to the last sequence number published. Sequence numbers drawn from the
+ * database may have gaps, which readers skip.
+ */
+class ChangeRingBuffer {
+
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    private final int mask;
+    private volatile long lastSequence;
+
+    /**
+     * @param capacity     rounded up to a power of two
+     * @param lastSequence sequence number of the last event already consumed, e.g. before a restart
+     */
+    ChangeRingBuffer(int capacity, long lastSequence) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Publishes an event numbered after the last one; only called by a single thread.
+     */
+    void append(ChangeEvent event) {
+        if (event.seq() <= lastSequence) {
+            throw new IllegalArgumentException("Sequence " + event.seq() + " does not follow " + lastSequence);
+        }
+        slots.set(slot(event.seq()), event);
+        lastSequence = event.seq();
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Returns up to {@code limit} published events following {@code since}, in sequence order.
+     *
+     * @throws ResyncRequiredException if events following {@code since} have already been overwritten,
+     *                                 or {@code since} lies ahead of the last published sequence number
+     */
+    List<ChangeEvent> readAfter(long since, int limit) {
+        long last = lastSequence;
+        if (since > last) {
+            throw new ResyncRequiredException("Sequence " + since + " is ahead of the change feed at " + last + ", resync required");
+        }
+        if (last - since > slots.length()) {
+            throw fellBehind(since, last);
+        }
+        List<ChangeEvent> events = new ArrayList<>((int) Math.min(limit, last - since));
+        for (long seq = since + 1; seq <= last && events.size() < limit; seq++) {
+            ChangeEvent event = slots.get(slot(seq));
+            if (event == null || event.seq() < seq) {
+                continue; // no event was journaled with this number
+            }
+            if (event.seq() > seq) {
+                throw fellBehind(since, lastSequence);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq & mask);
+    }
+
+    private ResyncRequiredException fellBehind(long since, long last) {
+        return new ResyncRequiredException("Changes after sequence " + since + " are no longer retained, only the last "
+                + slots.length() + " of " + last + " are, resync required");
+    }
+
+}
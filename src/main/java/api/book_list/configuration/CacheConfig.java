@@ -0,0 +1,34 @@
+package api.book_list.configuration;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String AUTHORS = "authors";
+
+    /**
+     * Caffeine bounds the caches with W-TinyLFU eviction. The transaction-aware proxy
+     * defers evictions made inside a transaction until it commits. Entities are read
+     * through the cache before any transaction is opened, so cache hits never open one.
+     * The caches hold futures, so that misses are loaded outside the lock of the cache's map.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${book-list.cache.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setCacheNames(List.of(BOOKS, AUTHORS));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+}
@@ -0,0 +1,38 @@
+package api.book_list.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * With {@code spring.threads.virtual.enabled} Tomcat and the {@code @Async} executor run every
+ * task on its own virtual thread, so thread count no longer bounds concurrency. Database work
+ * is then limited to as many concurrent units as the connection pools can serve, by default
+ * the primary pool plus the replica pool when one is configured; the rest wait briefly for a
+ * permit and are then rejected with 503 instead of queueing in Hikari. Requests served from
+ * memory, such as cache hits, the graph and the change feed, are not limited.
+ */
+@Configuration
+@EnableAsync
+public class ConcurrencyConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ConcurrencyLimitAspect concurrencyLimitAspect(@Value("${book-list.concurrency.max-in-flight:0}") int maxInFlight,
+                                                         @Value("${book-list.concurrency.acquire-timeout:2s}") Duration acquireTimeout,
+                                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize,
+                                                         @Value("${book-list.datasource.replica.url:}") String replicaUrl,
+                                                         @Value("${book-list.datasource.replica.hikari.maximum-pool-size:10}") int replicaPoolSize) {
+        if (maxInFlight <= 0) {
+            maxInFlight = replicaUrl.isEmpty() ? primaryPoolSize : primaryPoolSize + replicaPoolSize;
+        }
+        return new ConcurrencyLimitAspect(new Semaphore(maxInFlight, true), acquireTimeout);
+    }
+
+}
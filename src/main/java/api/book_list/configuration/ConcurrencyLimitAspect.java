@@ -0,0 +1,50 @@
+package api.book_list.configuration;
+
+import api.book_list.exception.ConcurrencyLimitExceededException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most as many database units of work as the semaphore has permits: transactional
+ * service methods, and repository calls made outside a transaction. It runs before the
+ * transaction is begun, so a rejected call never takes a connection, and calls within a
+ * transaction run on its permit.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitAspect {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConcurrencyLimitAspect(Semaphore permits, Duration acquireTimeout) {
+        this.permits = permits;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Around("(within(api.book_list.service..*) && (@within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional)))"
+            + " || target(org.springframework.data.repository.Repository)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new ConcurrencyLimitExceededException("Too many concurrent requests, try again later");
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+}
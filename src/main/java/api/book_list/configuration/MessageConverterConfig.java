@@ -0,0 +1,76 @@
+package api.book_list.configuration;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import api.book_list.exception.ErrorMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary representations selected by {@code Accept} and {@code Content-Type}: CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) for every
+ * payload, and Protocol Buffers ({@code application/x-protobuf}) for the messages of
+ * {@code book_list.proto}. All of them use copies of the JSON object mapper, so views and
+ * inclusion rules are the same. JSON stays first in the list and remains the default when
+ * any type is accepted.
+ */
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    private static final String PROTOBUF_SCHEMA = "protobuf/book_list.proto";
+
+    private final ObjectMapper objectMapper;
+
+    public MessageConverterConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replaces the default CBOR converter in its position after the JSON one.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    /**
+     * Replaces the default Smile converter in its position after the JSON one.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Appended rather than declared as a bean, as additional converter beans are put first.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        try {
+            NativeProtobufSchema schema = ProtobufSchemaLoader.std.loadNative(new ClassPathResource(PROTOBUF_SCHEMA).getURL());
+            converters.add(new ProtobufJacksonHttpMessageConverter(objectMapper.copyWith(new ProtobufFactory()), Map.of(
+                    Book.class, schema.forType("Book"),
+                    Author.class, schema.forType("Author"),
+                    ErrorMessage.class, schema.forType("ErrorMessage"))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + PROTOBUF_SCHEMA, e);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package api.book_list.configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Route timers ({@code http.server.requests}), Hikari pool gauges and Hibernate statistics
+ * come from Actuator's auto-configuration. This adds the {@code @Timed} aspect for the
+ * service methods and the per-request statement count.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final StatementCountingInterceptor statementCountingInterceptor;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.statementCountingInterceptor = new StatementCountingInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCountingInterceptor);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementCountingInterceptor).addPathPatterns("/api/**");
+    }
+
+}
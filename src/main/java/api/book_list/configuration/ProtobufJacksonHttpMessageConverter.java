@@ -0,0 +1,72 @@
+package api.book_list.configuration;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Reads and writes the types that have a message in {@code book_list.proto} as Protocol
+ * Buffers, through Jackson, so the same views and annotations apply as for JSON. Types
+ * without a message, like lists, are left to the other converters.
+ */
+class ProtobufJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final Map<Class<?>, ProtobufSchema> schemas;
+
+    ProtobufJacksonHttpMessageConverter(ObjectMapper objectMapper, Map<Class<?>, ProtobufSchema> schemas) {
+        super(objectMapper, APPLICATION_PROTOBUF, new MediaType("application", "protobuf"));
+        this.schemas = schemas;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return schemaFor(getJavaType(type, contextClass).getRawClass()) != null && super.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return schemaFor(clazz) != null && super.canWrite(clazz, mediaType);
+    }
+
+    /**
+     * Passes the class of the value as type, so that {@link #customizeWriter} can pick its schema.
+     */
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Object value = object instanceof MappingJacksonValue container ? container.getValue() : object;
+        super.writeInternal(object, value.getClass(), outputMessage);
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(schemaFor(javaType.getRawClass()));
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        return writer.with(schemaFor(javaType.getRawClass()));
+    }
+
+    private ProtobufSchema schemaFor(Class<?> clazz) {
+        for (Class<?> type = clazz; type != null; type = type.getSuperclass()) {
+            ProtobufSchema schema = schemas.get(type);
+            if (schema != null) {
+                return schema;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,68 @@
+package api.book_list.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Remembers clients that write for a short window and pins their requests in that window to
+ * the primary, so they read their own writes even while the replica lags. A client is marked
+ * before its write runs, as a controller's response is committed before any later callback,
+ * and the window restarts once the write has succeeded. Clients are told apart by the
+ * {@code X-Client-Id} header; requests without it are never pinned, as many clients can share
+ * one address.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId == null) {
+            return true;
+        }
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            recentWriters.put(clientId, Boolean.TRUE);
+        }
+        if (recentWriters.getIfPresent(clientId) != null) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        PINNED_TO_PRIMARY.remove();
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !SAFE_METHODS.contains(request.getMethod()) && ex == null && response.getStatus() < 400) {
+            recentWriters.put(clientId, Boolean.TRUE);
+        }
+    }
+
+}
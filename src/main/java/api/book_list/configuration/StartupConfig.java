@@ -0,0 +1,24 @@
+package api.book_list.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code spring.main.lazy-initialization}, as in the production profile, beans are created
+ * on first use. The data source and the entity manager factory stay eager, so configuration and
+ * mapping errors still fail the startup rather than the first request; the in-memory indexes
+ * need them right after startup anyway.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistenceBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+
+}
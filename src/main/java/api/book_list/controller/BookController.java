@@ -1,61 +1,213 @@
 package api.book_list.controller;
 
+import api.book_list.dto.AuthorDistance;
+import api.book_list.dto.AuthorSummary;
+import api.book_list.dto.BatchItemResult;
+import api.book_list.dto.BatchLookupResult;
+import api.book_list.dto.BookSummary;
+import api.book_list.dto.CoAuthor;
+import api.book_list.dto.ImportSummary;
+import api.book_list.dto.CursorPage;
 import api.book_list.entity.Author;
 import api.book_list.entity.Book;
 import api.book_list.service.BookService;
+import api.book_list.service.CatalogImportService;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 @ApiResponse(responseCode = "500", description = "Internal server error")
 public class BookController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String FIELDS_DESCRIPTION = "Comma-separated properties to return, all by default; the ID is always returned";
+
     private final BookService bookService;
+    private final CatalogImportService catalogImportService;
+    private final ObjectWriter exportWriter;
+    private final RepresentationNegotiator representationNegotiator;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogImportService catalogImportService, ObjectMapper objectMapper,
+                          RepresentationNegotiator representationNegotiator) {
         this.bookService = bookService;
+        this.catalogImportService = catalogImportService;
+        this.representationNegotiator = representationNegotiator;
+        this.exportWriter = objectMapper.writerFor(BookSummary.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/books")
-    @Operation(summary = "Get all books")
-    @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
-    public List<Book> getAllBooks() {
-        return bookService.findAllBooks();
+    @Operation(summary = "Get a page of books ordered by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookSummary>> getAllBooks(
+            @Parameter(description = "Return books with an ID greater than this cursor")
+            @RequestParam(defaultValue = "0") int after,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(defaultValue = "${book-list.pagination.default-limit:100}") int limit,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,title")
+            @RequestParam(required = false) Set<String> fields) {
+        return toPageResponse(fields == null ? bookService.findBooks(after, limit) : bookService.findBooks(after, limit, fields), limit);
     }
 
     @GetMapping("/authors")
-    @Operation(summary = "Get all authors")
-    @ApiResponse(responseCode = "200", description = "Authors retrieved successfully")
-    public List<Author> getAllAuthors() {
-        return bookService.findAllAuthors();
+    @Operation(summary = "Get a page of authors ordered by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Authors retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid limit or unknown field")
+    })
+    public ResponseEntity<List<Author>> getAllAuthors(
+            @Parameter(description = "Return authors with an ID greater than this cursor")
+            @RequestParam(defaultValue = "0") int after,
+            @Parameter(description = "Maximum number of authors to return")
+            @RequestParam(defaultValue = "${book-list.pagination.default-limit:100}") int limit,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,lastName")
+            @RequestParam(required = false) Set<String> fields) {
+        return toPageResponse(fields == null ? bookService.findAuthors(after, limit) : bookService.findAuthors(after, limit, fields), limit);
+    }
+
+    @GetMapping(value = "/books", params = "ids")
+    @Operation(summary = "Get several books by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books found, in the order of the IDs, and the IDs without a book"),
+            @ApiResponse(responseCode = "400", description = "Bad request - No or too many IDs")
+    })
+    public BatchLookupResult<Book> getBooksByIds(
+            @Parameter(description = "Comma-separated IDs of the books", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+        return bookService.findBooksByIds(ids);
+    }
+
+    @GetMapping(value = "/authors", params = "ids")
+    @Operation(summary = "Get several authors by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Authors found, in the order of the IDs, and the IDs without an author"),
+            @ApiResponse(responseCode = "400", description = "Bad request - No or too many IDs")
+    })
+    public BatchLookupResult<Author> getAuthorsByIds(
+            @Parameter(description = "Comma-separated IDs of the authors", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+        return bookService.findAuthorsByIds(ids);
+    }
+
+    @GetMapping(value = "/books/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all books as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Books streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = out -> bookService.forEachBook(book -> {
+            try {
+                exportWriter.writeValue(out, BookSummary.from(book));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/books/search")
+    @Operation(summary = "Search books by title and author name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching books retrieved successfully, best match first"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Empty query or invalid limit")
+    })
+    public List<Book> searchBooks(
+            @Parameter(description = "Words to look for; the last one also matches as a prefix")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(defaultValue = "20") int limit) {
+        return bookService.searchBooks(q, limit);
     }
 
     @GetMapping("/books/{id}")
     @Operation(summary = "Get book by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Book not modified since the version in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Unknown field"),
             @ApiResponse(responseCode = "404", description = "Book not found")
     })
-    public Book getBook(@PathVariable int id) {
-        return bookService.findBookById(id);
+    public ResponseEntity<Book> getBook(
+            @PathVariable int id,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,title")
+            @RequestParam(required = false) Set<String> fields,
+            NativeWebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(bookService.findBookVersion(id), Book.class, request))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        Book book = fields == null ? bookService.findBookById(id) : bookService.findBookById(id, fields);
+        return tagged(book, book.getVersion(), request);
+    }
+
+    @GetMapping("/books/isbn/{isbn}")
+    @Operation(summary = "Get book by ISBN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Book retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Not an ISBN-10 or ISBN-13"),
+            @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    public ResponseEntity<Book> getBookByIsbn(
+            @Parameter(description = "ISBN-10 or ISBN-13, with or without hyphens", example = "978-83-01-00000-1")
+            @PathVariable String isbn,
+            NativeWebRequest request) {
+        Book book = bookService.findBookByIsbn(isbn);
+        return tagged(book, book.getVersion(), request);
     }
 
     @GetMapping("/authors/{id}")
     @Operation(summary = "Get author by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Author retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Author not modified since the version in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Unknown field"),
             @ApiResponse(responseCode = "404", description = "Author not found")
     })
-    public Author getAuthor(@PathVariable int id) {
-        return bookService.findAuthorById(id);
+    public ResponseEntity<Author> getAuthor(
+            @PathVariable int id,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,lastName")
+            @RequestParam(required = false) Set<String> fields,
+            NativeWebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(bookService.findAuthorVersion(id), Author.class, request))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        Author author = fields == null ? bookService.findAuthorById(id) : bookService.findAuthorById(id, fields);
+        return tagged(author, author.getVersion(), request);
     }
 
     @GetMapping("/books/{id}/authors")
@@ -64,7 +216,7 @@ public class BookController {
             @ApiResponse(responseCode = "200", description = "Authors retrieved successfully"),
             @ApiResponse(responseCode = "404", description = "Book not found")
     })
-    public List<Author> getAuthorsByBookId(@PathVariable int id) {
+    public List<AuthorSummary> getAuthorsByBookId(@PathVariable int id) {
         return bookService.findAuthorsByBookId(id);
     }
 
@@ -74,10 +226,46 @@ public class BookController {
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
             @ApiResponse(responseCode = "404", description = "Author not found")
     })
-    public List<Book> getBooksByAuthorId(@PathVariable int id) {
+    public List<BookSummary> getBooksByAuthorId(@PathVariable int id) {
         return bookService.findBooksByAuthorId(id);
     }
 
+    @GetMapping("/authors/{id}/graph/co-authors")
+    @Operation(summary = "Get the co-authors of an author, most shared books first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Co-authors retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found")
+    })
+    public List<CoAuthor> getCoAuthors(@PathVariable int id) {
+        return bookService.findCoAuthors(id);
+    }
+
+    @GetMapping("/authors/{id}/graph/within")
+    @Operation(summary = "Get the authors within a number of co-authorship hops, nearest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Authors retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid hops or limit"),
+            @ApiResponse(responseCode = "404", description = "Author not found")
+    })
+    public List<AuthorDistance> getAuthorsWithinHops(
+            @PathVariable int id,
+            @Parameter(description = "Maximum number of co-authorships between the authors")
+            @RequestParam(defaultValue = "2") int hops,
+            @Parameter(description = "Maximum number of authors to return")
+            @RequestParam(defaultValue = "${book-list.pagination.default-limit:100}") int limit) {
+        return bookService.findAuthorsWithinHops(id, hops, limit);
+    }
+
+    @GetMapping("/authors/{id}/graph/shared-books/{otherId}")
+    @Operation(summary = "Get the IDs of the books two authors wrote together")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Book IDs retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found")
+    })
+    public int[] getSharedBookIds(@PathVariable int id, @PathVariable int otherId) {
+        return bookService.findSharedBookIds(id, otherId);
+    }
+
     @PostMapping("/books")
     @Operation(summary = "Create a new book")
     @ApiResponses(value = {
@@ -103,16 +291,64 @@ public class BookController {
         return bookService.saveAuthor(author);
     }
 
+    @PostMapping("/books/batch")
+    @Operation(summary = "Create several books in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "207", description = "Per-book results: created, validation error or some authors not found"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Malformed JSON or invalid batch size")
+    })
+    @ResponseStatus(HttpStatus.MULTI_STATUS)
+    public List<BatchItemResult> createBooks(@RequestBody @JsonView(Book.PostAndPatchBookWithAuthorIdView.class) List<Book> books) {
+        books.forEach(book -> book.setId(0));
+        return bookService.saveBooks(books);
+    }
+
+    @PostMapping(value = "/books/import", consumes = TEXT_CSV_VALUE)
+    @Operation(summary = "Import books from a CSV file",
+            description = "The header names the columns title, isbn and optionally authors, which holds names as "
+                    + "'First Last' separated by ';'. Unknown authors are created. Rows are committed in batches; "
+                    + "if the import is aborted, send the file again with resumeFrom from the summary.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import completed; the summary lists rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Missing columns or invalid batch size"),
+            @ApiResponse(responseCode = "500", description = "Import aborted; the summary tells where to resume")
+    })
+    public ResponseEntity<ImportSummary> importBooks(
+            InputStream body,
+            @Parameter(description = "Number of rows committed together")
+            @RequestParam(defaultValue = "${book-list.import.batch-size:500}") int batchSize,
+            @Parameter(description = "First row to import, counting from 1 after the header")
+            @RequestParam(defaultValue = "1") long resumeFrom) {
+        ImportSummary summary = catalogImportService.importBooks(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), batchSize, resumeFrom);
+        return ResponseEntity.status(summary.completed() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR).body(summary);
+    }
+
+    @PostMapping("/authors/batch")
+    @Operation(summary = "Create several authors in one request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "207", description = "Per-author results: created or validation error"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Malformed JSON or invalid batch size")
+    })
+    @ResponseStatus(HttpStatus.MULTI_STATUS)
+    public List<BatchItemResult> createAuthors(@RequestBody @JsonView(Author.PostAndPatchView.class) List<Author> authors) {
+        authors.forEach(author -> author.setId(0));
+        return bookService.saveAuthors(authors);
+    }
+
     @PutMapping("/books")
     @Operation(summary = "Update an existing book")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation error or malformed JSON"),
-            @ApiResponse(responseCode = "404", description = "Book not found or some authors not found")
+            @ApiResponse(responseCode = "404", description = "Book not found or some authors not found"),
+            @ApiResponse(responseCode = "412", description = "Book version does not match If-Match")
     })
-    public Book updateBook(@RequestBody @JsonView(Book.PutBookWithAuthorIdView.class) Book book) {
-        bookService.findBookById(book.getId());
-        return bookService.saveBook(book);
+    public ResponseEntity<Book> updateBook(@RequestBody @JsonView(Book.PutBookWithAuthorIdView.class) Book book,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           NativeWebRequest request) {
+        Book savedBook = bookService.replaceBook(book, expectedVersions(ifMatch));
+        return tagged(savedBook, savedBook.getVersion(), request);
     }
 
     @PutMapping("/authors")
@@ -120,11 +356,14 @@ public class BookController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Author updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation error or malformed JSON"),
-            @ApiResponse(responseCode = "404", description = "Author not found")
+            @ApiResponse(responseCode = "404", description = "Author not found"),
+            @ApiResponse(responseCode = "412", description = "Author version does not match If-Match")
     })
-    public Author updateAuthor(@RequestBody Author author) {
-        bookService.findAuthorById(author.getId());
-        return bookService.saveAuthor(author);
+    public ResponseEntity<Author> updateAuthor(@RequestBody Author author,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               NativeWebRequest request) {
+        Author savedAuthor = bookService.replaceAuthor(author, expectedVersions(ifMatch));
+        return tagged(savedAuthor, savedAuthor.getVersion(), request);
     }
 
     @PatchMapping("/books/{id}")
@@ -132,12 +371,14 @@ public class BookController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation error or malformed JSON"),
-            @ApiResponse(responseCode = "404", description = "Book not found or some authors not found")
+            @ApiResponse(responseCode = "404", description = "Book not found or some authors not found"),
+            @ApiResponse(responseCode = "412", description = "Book version does not match If-Match")
     })
-    public Book patchBook(@PathVariable int id, @RequestBody @JsonView(Book.PostAndPatchBookWithAuthorIdView.class) Book editedBook) {
-        Book existingBook = bookService.findBookById(id);
-        bookService.changeBook(existingBook, editedBook);
-        return existingBook;
+    public ResponseEntity<Book> patchBook(@PathVariable int id, @RequestBody @JsonView(Book.PostAndPatchBookWithAuthorIdView.class) Book editedBook,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          NativeWebRequest request) {
+        Book savedBook = bookService.changeBook(id, editedBook, expectedVersions(ifMatch));
+        return tagged(savedBook, savedBook.getVersion(), request);
     }
 
     @PatchMapping("/authors/{id}")
@@ -145,12 +386,14 @@ public class BookController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Author updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation error or malformed JSON"),
-            @ApiResponse(responseCode = "404", description = "Author not found")
+            @ApiResponse(responseCode = "404", description = "Author not found"),
+            @ApiResponse(responseCode = "412", description = "Author version does not match If-Match")
     })
-    public Author patchAuthor(@PathVariable int id, @RequestBody @JsonView(Author.PostAndPatchView.class) Author editedAuthor) {
-        Author existingAuthor = bookService.findAuthorById(id);
-        bookService.changeAuthor(existingAuthor, editedAuthor);
-        return existingAuthor;
+    public ResponseEntity<Author> patchAuthor(@PathVariable int id, @RequestBody @JsonView(Author.PostAndPatchView.class) Author editedAuthor,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              NativeWebRequest request) {
+        Author savedAuthor = bookService.changeAuthor(id, editedAuthor, expectedVersions(ifMatch));
+        return tagged(savedAuthor, savedAuthor.getVersion(), request);
     }
 
 
@@ -173,9 +416,54 @@ public class BookController {
             @ApiResponse(responseCode = "404", description = "Author not found")
     })
     public ResponseEntity<Void> deleteAuthorById(@PathVariable int id) {
-        Author author = bookService.findAuthorById(id);
-        bookService.deleteAuthor(author);
+        bookService.deleteAuthor(id);
         return ResponseEntity.noContent().build();
     }
 
+    private <T> ResponseEntity<T> tagged(T entity, int version, NativeWebRequest request) {
+        return ResponseEntity.ok().eTag(eTag(version, entity.getClass(), request)).varyBy(HttpHeaders.ACCEPT).body(entity);
+    }
+
+    /**
+     * Tag of the given version in the media type negotiated for the request, as the formats
+     * of one version differ byte for byte. JSON keeps the plain version, other media types
+     * get their subtype appended ({@code "3-cbor"}).
+     */
+    private String eTag(int version, Class<?> entityClass, NativeWebRequest request) {
+        MediaType mediaType = representationNegotiator.negotiate(request, entityClass);
+        if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    /**
+     * Versions an update may apply to, or {@code null} without a condition. Strong comparison
+     * as required for If-Match: weak validators never match. The tags of every format match,
+     * as they only differ in the representation of the same version.
+     */
+    private static List<Integer> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .filter(tag -> tag.matches("\"\\d{1,9}(-[\\w.+-]+)?\""))
+                .map(tag -> Integer.valueOf(tag.substring(1, tag.length() - 1).split("-", 2)[0]))
+                .toList();
+    }
+
+    private <T> ResponseEntity<List<T>> toPageResponse(CursorPage<T> page, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextCursor())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.content());
+    }
+
 }
@@ -0,0 +1,71 @@
+package api.book_list.controller;
+
+import api.book_list.changes.ChangeFeed;
+import api.book_list.dto.ChangeEvent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/changes")
+@ApiResponse(responseCode = "500", description = "Internal server error")
+public class ChangeController {
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get the changes to books and authors following a sequence number",
+            description = "Without since, returns no changes and the current sequence number as the cursor to poll from.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid limit"),
+            @ApiResponse(responseCode = "410", description = "Changes are no longer retained - Reload and poll from the current sequence number")
+    })
+    public ResponseEntity<List<ChangeEvent>> getChanges(
+            @Parameter(description = "Sequence number of the last change already applied")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Maximum number of changes to return")
+            @RequestParam(defaultValue = "${book-list.pagination.default-limit:100}") int limit) {
+        List<ChangeEvent> changes = since == null ? List.of() : changeFeed.findChanges(since, limit);
+        long next = !changes.isEmpty() ? changes.getLast().seq() : since != null ? since : changeFeed.lastSequence();
+        String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("since", next)
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(BookController.NEXT_CURSOR_HEADER, String.valueOf(next))
+                .header(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"")
+                .body(changes);
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the changes to books and authors as server-sent events",
+            description = "Starts after Last-Event-ID, since or, without either, the current sequence number. "
+                    + "A consumer that falls behind receives a resync event and the stream is closed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "410", description = "Changes are no longer retained - Reload and stream from the current sequence number")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Sequence number of the last change already applied")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Set by the client when reconnecting; takes precedence over since")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long start = lastEventId != null ? lastEventId : since != null ? since : changeFeed.lastSequence();
+        return changeFeed.subscribe(start);
+    }
+
+}
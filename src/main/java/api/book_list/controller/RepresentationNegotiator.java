@@ -0,0 +1,69 @@
+package api.book_list.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects the media type a value is written in before the response is written, so that
+ * validators can be specific to it. Uses the content negotiation and message converters of
+ * the handler adapter, and selects as they do: the most specific of the accepted types that
+ * a converter can write for the value's class.
+ */
+@Component
+class RepresentationNegotiator {
+
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    RepresentationNegotiator(ContentNegotiationManager contentNegotiationManager, RequestMappingHandlerAdapter handlerAdapter) {
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * Returns the media type of the representation, or JSON if none is acceptable, in which
+     * case the response is {@code 406 Not Acceptable} anyway.
+     */
+    MediaType negotiate(NativeWebRequest request, Class<?> valueClass) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = contentNegotiationManager.resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType accepted : acceptable) {
+            for (HttpMessageConverter<?> converter : handlerAdapter.getMessageConverters()) {
+                if (!converter.canWrite(valueClass, null)) {
+                    continue;
+                }
+                for (MediaType producible : converter.getSupportedMediaTypes(valueClass)) {
+                    if (accepted.isCompatibleWith(producible)) {
+                        compatible.add(mostSpecific(accepted, producible));
+                    }
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.stream()
+                .filter(MediaType::isConcrete)
+                .findFirst()
+                .map(MediaType::removeQualityValue)
+                .orElse(MediaType.APPLICATION_JSON);
+    }
+
+    private static MediaType mostSpecific(MediaType accepted, MediaType producible) {
+        MediaType produced = producible.copyQualityValue(accepted);
+        return accepted.isLessSpecific(produced) ? produced : accepted;
+    }
+
+}
@@ -0,0 +1,4 @@
+package api.book_list.dto;
+
+public record AuthorDistance(int id, int hops) {
+}
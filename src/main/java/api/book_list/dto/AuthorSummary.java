@@ -0,0 +1,4 @@
+package api.book_list.dto;
+
+public record AuthorSummary(int id, String firstName, String lastName) {
+}
@@ -0,0 +1,17 @@
+package api.book_list.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, int status, Integer id, String error) {
+
+    public static BatchItemResult created(int index, int id) {
+        return new BatchItemResult(index, HttpStatus.CREATED.value(), id, null);
+    }
+
+    public static BatchItemResult rejected(int index, HttpStatus status, String error) {
+        return new BatchItemResult(index, status.value(), null, error);
+    }
+
+}
@@ -0,0 +1,10 @@
+package api.book_list.dto;
+
+import java.util.List;
+
+/**
+ * Result of a lookup by several ids: what was found, in the order of the requested ids, and
+ * the ids without a match.
+ */
+public record BatchLookupResult<T>(List<T> found, List<Integer> missingIds) {
+}
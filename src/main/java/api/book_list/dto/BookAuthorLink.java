@@ -0,0 +1,9 @@
+package api.book_list.dto;
+
+public interface BookAuthorLink {
+
+    int getBookId();
+
+    int getAuthorId();
+
+}
@@ -0,0 +1,30 @@
+package api.book_list.dto;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookSummary(int id, String title, String isbn, int[] authorIds) {
+
+    private static final int[] NO_AUTHORS = {};
+
+    /**
+     * Used by JPQL constructor expressions; the author ids are added with {@link #withAuthorIds(int[])}.
+     */
+    public BookSummary(int id, String title, String isbn) {
+        this(id, title, isbn, NO_AUTHORS);
+    }
+
+    public static BookSummary from(Book book) {
+        int[] authorIds = book.getAuthors().stream()
+                .mapToInt(Author::getId)
+                .toArray();
+        return new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), authorIds);
+    }
+
+    public BookSummary withAuthorIds(int[] authorIds) {
+        return new BookSummary(id, title, isbn, authorIds);
+    }
+
+}
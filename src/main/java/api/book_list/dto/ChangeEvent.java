@@ -0,0 +1,19 @@
+package api.book_list.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * One create, update or delete of a book or author, numbered by {@code seq} as it is journaled.
+ * {@code version} is the entity version after the change; it is {@code null} for deletes and
+ * for books whose version was incremented in bulk, such as when one of their authors is deleted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(long seq, Entity entity, int id, Op op, Integer version, Instant timestamp) {
+
+    public enum Entity { BOOK, AUTHOR }
+
+    public enum Op { CREATED, UPDATED, DELETED }
+
+}
@@ -0,0 +1,4 @@
+package api.book_list.dto;
+
+public record CoAuthor(int id, int sharedBooks) {
+}
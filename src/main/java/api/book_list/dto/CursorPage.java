@@ -0,0 +1,20 @@
+package api.book_list.dto;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+public record CursorPage<T>(List<T> content, Integer nextCursor) {
+
+    /**
+     * Builds a page from a keyset query that fetched up to {@code limit + 1} rows.
+     * The extra row only signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, ToIntFunction<T> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new CursorPage<>(content, idExtractor.applyAsInt(content.get(limit - 1)));
+    }
+
+}
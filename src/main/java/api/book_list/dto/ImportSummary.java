@@ -0,0 +1,19 @@
+package api.book_list.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV import. Rows are numbered from 1, after the header. If the import was
+ * aborted, {@code resumeFrom} is the first row of the batch that was not committed; sending
+ * the same file again with it skips the rows already imported.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportSummary(boolean completed, long rowsRead, long booksImported, long authorsCreated, long duplicates,
+                            long rejected, long elapsedMillis, long rowsPerSecond, Long resumeFrom, String error,
+                            List<RowError> errors) {
+
+    public record RowError(long row, String error) {}
+
+}
@@ -1,6 +1,7 @@
 package api.book_list.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
@@ -13,6 +14,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
 @Setter
 @Table(name = "Author")
@@ -21,7 +23,8 @@ public class Author {
     public interface PostAndPatchView {}
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "Author_SEQ", allocationSize = 50)
     @Column(name = "AuthorID")
     @JsonView({Book.PutBookWithAuthorIdView.class, Book.PostAndPatchBookWithAuthorIdView.class})
     @Schema(description = "ID of the author", example = "1")
@@ -41,6 +44,11 @@ public class Author {
     @Schema(description = "Last name of the author", example = "Doe")
     private String lastName;
 
+    @Version
+    @Column(name = "Version")
+    @JsonIgnore
+    private int version;
+
     @ManyToMany(mappedBy = "authors")
     @JsonIgnore
     private Set<Book> books;
@@ -1,17 +1,22 @@
 package api.book_list.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
 @Setter
 @Table(name = "Book")
@@ -21,7 +26,8 @@ public class Book {
     public interface PutBookWithAuthorIdView extends PostAndPatchBookWithAuthorIdView {}
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "Book_SEQ", allocationSize = 50)
     @Column(name = "BookID")
     @JsonView(PutBookWithAuthorIdView.class)
     @Schema(description = "ID of the book", example = "1")
@@ -41,7 +47,19 @@ public class Book {
     @Schema(description = "ISBN of the book", example = "978-83-01-00000-1")
     private String isbn;
 
+    @Column(name = "IsbnKey", length = 13, unique = true)
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String isbnKey;
+
+    @Version
+    @Column(name = "Version")
+    @JsonIgnore
+    private int version;
+
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 100)
+    @OrderBy("id")
     @JoinTable(name = "Book_Author",
             joinColumns = @JoinColumn(name = "BookID"),
             inverseJoinColumns = @JoinColumn(name = "AuthorID"))
@@ -55,14 +73,19 @@ public class Book {
     public Book(String title, String isbn) {
         this();
         this.title = title;
-        this.isbn = isbn;
+        setIsbn(isbn);
     }
 
     public Book(String title, String isbn, Set<Author> authors) {
         this();
         this.title = title;
-        this.isbn = isbn;
+        setIsbn(isbn);
         this.authors = authors;
     }
 
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+        this.isbnKey = Isbn.canonicalize(isbn);
+    }
+
 }
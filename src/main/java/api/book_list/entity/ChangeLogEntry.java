@@ -0,0 +1,39 @@
+package api.book_list.entity;
+
+import api.book_list.dto.ChangeEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Journal row of a {@link ChangeEvent}. Mapped for the schema only: rows are written in
+ * batches and read back on startup over JDBC, outside of any persistence context.
+ */
+@Entity
+@Getter
+@Table(name = "ChangeLog")
+public class ChangeLogEntry {
+
+    @Id
+    @Column(name = "Seq")
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Entity", length = 10, nullable = false)
+    private ChangeEvent.Entity entity;
+
+    @Column(name = "EntityID", nullable = false)
+    private int entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Op", length = 10, nullable = false)
+    private ChangeEvent.Op op;
+
+    @Column(name = "Version")
+    private Integer version;
+
+    @Column(name = "ChangedAt", nullable = false)
+    private Instant changedAt;
+
+}
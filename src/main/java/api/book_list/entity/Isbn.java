@@ -0,0 +1,50 @@
+package api.book_list.entity;
+
+/**
+ * Canonical form of ISBN-10 and ISBN-13 numbers: hyphens and spaces are dropped and ISBN-10s
+ * are converted to their 978-prefixed ISBN-13, so every spelling of a number shares one key.
+ * Check digits of the input are not validated; the key of an ISBN-10 gets a recomputed one.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    /**
+     * Returns the 13-digit key of the given ISBN, or {@code null} if it is not an ISBN-10 or ISBN-13.
+     */
+    public static String canonicalize(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(13);
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if ((c == 'X' || c == 'x') && digits.length() == 9 && i == isbn.length() - 1) {
+                digits.append('X');
+            } else if (c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        if (digits.length() == 13 && digits.indexOf("X") < 0) {
+            return digits.toString();
+        }
+        if (digits.length() == 10) {
+            String isbn13 = "978" + digits.substring(0, 9);
+            return isbn13 + checkDigit13(isbn13);
+        }
+        return null;
+    }
+
+    private static int checkDigit13(String first12Digits) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = first12Digits.charAt(i) - '0';
+            sum += i % 2 == 0 ? digit : digit * 3;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+}
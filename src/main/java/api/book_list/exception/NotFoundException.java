@@ -0,0 +1,28 @@
+package api.book_list.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Thrown when a requested book or author does not exist. Misses are expected, e.g. from stale
+ * clients, and are answered with 404, so no stack trace is captured.
+ */
+public class NotFoundException extends EntityNotFoundException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    public static NotFoundException book(int id) {
+        return new NotFoundException("No result found for book with ID: " + id);
+    }
+
+    public static NotFoundException author(int id) {
+        return new NotFoundException("No result found for author with ID: " + id);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
@@ -0,0 +1,9 @@
+package api.book_list.exception;
+
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,266 @@
+package api.book_list.index;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over book titles and author names. Queries match every term, the last one
+ * also as a prefix, and rank books by the summed IDF of the matched terms, with title matches
+ * weighted above author matches.
+ * <p>
+ * Versions and tombstones are kept for authors as well as books, and authors removed from the
+ * index are left out of the books indexed after them.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float AUTHOR_WEIGHT = 1.0f;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> titleIndex = new TreeMap<>();
+    private final NavigableMap<String, PostingList> authorIndex = new TreeMap<>();
+    private final Map<Integer, IndexedBook> books = new HashMap<>();
+    private final Map<Integer, IndexedAuthor> authors = new HashMap<>();
+    private final Map<Integer, Integer> bookVersions = new HashMap<>();
+    private final Map<Integer, Integer> authorVersions = new HashMap<>();
+
+    private record IndexedBook(String[] titleTerms, int[] authorIds, String[] authorTerms) {}
+
+    private record IndexedAuthor(String[] terms, PostingList bookIds) {}
+
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            if (!advance(bookVersions, book.getId(), book.getVersion())) {
+                return;
+            }
+            for (Author author : book.getAuthors()) {
+                updateAuthor(author);
+            }
+            int[] authorIds = book.getAuthors().stream()
+                    .mapToInt(Author::getId)
+                    .filter(authorId -> authorVersions.getOrDefault(authorId, 0) != REMOVED)
+                    .sorted()
+                    .toArray();
+            IndexedBook existing = books.get(book.getId());
+            if (existing != null) {
+                for (int authorId : existing.authorIds()) {
+                    if (Arrays.binarySearch(authorIds, authorId) < 0) {
+                        authors.get(authorId).bookIds().remove(book.getId());
+                    }
+                }
+            }
+            for (int authorId : authorIds) {
+                authors.get(authorId).bookIds().add(book.getId());
+            }
+            replaceBook(book.getId(), tokenize(book.getTitle()), authorIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Author author) {
+        lock.writeLock().lock();
+        try {
+            updateAuthor(author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(int id) {
+        lock.writeLock().lock();
+        try {
+            bookVersions.put(id, REMOVED);
+            IndexedBook existing = books.remove(id);
+            if (existing == null) {
+                return;
+            }
+            removePostings(titleIndex, existing.titleTerms(), id);
+            removePostings(authorIndex, existing.authorTerms(), id);
+            for (int authorId : existing.authorIds()) {
+                authors.get(authorId).bookIds().remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(int id) {
+        lock.writeLock().lock();
+        try {
+            authorVersions.put(id, REMOVED);
+            IndexedAuthor existing = authors.remove(id);
+            if (existing == null) {
+                return;
+            }
+            for (int bookId : existing.bookIds().toArray()) {
+                IndexedBook book = books.get(bookId);
+                int[] authorIds = Arrays.stream(book.authorIds()).filter(authorId -> authorId != id).toArray();
+                replaceBook(bookId, book.titleTerms(), authorIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            titleIndex.clear();
+            authorIndex.clear();
+            books.clear();
+            authors.clear();
+            bookVersions.clear();
+            authorVersions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching books, best first.
+     */
+    public List<Integer> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = null;
+            for (int i = 0; i < terms.length; i++) {
+                boolean prefix = i == terms.length - 1;
+                Map<Integer, Float> termScores = new HashMap<>();
+                collect(titleIndex, terms[i], prefix, TITLE_WEIGHT, termScores);
+                collect(authorIndex, terms[i], prefix, AUTHOR_WEIGHT, termScores);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases, strips diacritics and splits on anything that is not a letter or digit.
+     */
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Records {@code version} as the indexed one unless it is older; returns whether it was recorded.
+     */
+    private static boolean advance(Map<Integer, Integer> versions, int id, int version) {
+        Integer indexedVersion = versions.get(id);
+        if (indexedVersion != null && indexedVersion > version) {
+            return false;
+        }
+        versions.put(id, version);
+        return true;
+    }
+
+    private void updateAuthor(Author author) {
+        int id = author.getId();
+        if (!advance(authorVersions, id, author.getVersion())) {
+            return;
+        }
+        String[] terms = tokenize(author.getFirstName() + " " + author.getLastName());
+        IndexedAuthor existing = authors.get(id);
+        if (existing == null) {
+            authors.put(id, new IndexedAuthor(terms, new PostingList()));
+            return;
+        }
+        if (Arrays.equals(existing.terms(), terms)) {
+            return;
+        }
+        authors.put(id, new IndexedAuthor(terms, existing.bookIds()));
+        for (int bookId : existing.bookIds().toArray()) {
+            IndexedBook book = books.get(bookId);
+            replaceBook(bookId, book.titleTerms(), book.authorIds());
+        }
+    }
+
+    private void replaceBook(int id, String[] titleTerms, int[] authorIds) {
+        String[] authorTerms = Arrays.stream(authorIds)
+                .mapToObj(authorId -> authors.get(authorId).terms())
+                .flatMap(Arrays::stream)
+                .distinct()
+                .toArray(String[]::new);
+        IndexedBook existing = books.put(id, new IndexedBook(titleTerms, authorIds, authorTerms));
+        if (existing != null) {
+            removePostings(titleIndex, existing.titleTerms(), id);
+            removePostings(authorIndex, existing.authorTerms(), id);
+        }
+        addPostings(titleIndex, titleTerms, id);
+        addPostings(authorIndex, authorTerms, id);
+    }
+
+    private static void addPostings(Map<String, PostingList> index, String[] terms, int id) {
+        for (String term : terms) {
+            index.computeIfAbsent(term, key -> new PostingList()).add(id);
+        }
+    }
+
+    private static void removePostings(Map<String, PostingList> index, String[] terms, int id) {
+        for (String term : terms) {
+            PostingList postings = index.get(term);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                index.remove(term);
+            }
+        }
+    }
+
+    private void collect(NavigableMap<String, PostingList> index, String term, boolean prefix, float weight,
+                         Map<Integer, Float> scores) {
+        Map<String, PostingList> matches = prefix
+                ? index.subMap(term, true, term + Character.MAX_VALUE, false)
+                : index.containsKey(term) ? Map.of(term, index.get(term)) : Map.of();
+        for (Map.Entry<String, PostingList> match : matches.entrySet()) {
+            PostingList postings = match.getValue();
+            float score = weight * idf(postings.size()) * (match.getKey().equals(term) ? 1.0f : PREFIX_WEIGHT);
+            for (int i = 0; i < postings.size(); i++) {
+                scores.merge(postings.get(i), score, Math::max);
+            }
+        }
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1.0 + (double) books.size() / documentFrequency);
+    }
+
+}
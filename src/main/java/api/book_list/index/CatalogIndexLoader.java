@@ -0,0 +1,40 @@
+package api.book_list.index;
+
+import api.book_list.service.BookService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the in-memory indexes with one pass over the catalog once the application has started.
+ * Afterwards they are kept current by the write methods of {@link BookService}.
+ */
+@Component
+public class CatalogIndexLoader {
+
+    private final BookService bookService;
+    private final BookSearchIndex searchIndex;
+    private final IsbnIndex isbnIndex;
+    private final CoAuthorGraph coAuthorGraph;
+
+    public CatalogIndexLoader(BookService bookService, BookSearchIndex searchIndex, IsbnIndex isbnIndex, CoAuthorGraph coAuthorGraph) {
+        this.bookService = bookService;
+        this.searchIndex = searchIndex;
+        this.isbnIndex = isbnIndex;
+        this.coAuthorGraph = coAuthorGraph;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        searchIndex.clear();
+        isbnIndex.clear();
+        CoAuthorGraph.Builder graph = new CoAuthorGraph.Builder();
+        bookService.forEachBook(book -> {
+            searchIndex.index(book);
+            isbnIndex.index(book);
+            graph.add(book);
+        });
+        coAuthorGraph.reset(graph);
+    }
+
+}
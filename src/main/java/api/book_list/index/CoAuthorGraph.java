@@ -0,0 +1,397 @@
+package api.book_list.index;
+
+import api.book_list.dto.AuthorDistance;
+import api.book_list.dto.CoAuthor;
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bipartite graph of the {@code Book_Author} links in compressed sparse row form: sorted id
+ * arrays, offsets and adjacency arrays of indexes, in both directions. Only linked authors
+ * and books are part of it.
+ * <p>
+ * Readers use an immutable snapshot without locking. Writers only queue their changes; a
+ * single worker thread rebuilds the snapshot in one pass over all links and publishes it, taking
+ * every change queued up to then, so bursts of writes cost one rebuild and no writer waits for
+ * it. Readers therefore see a write once the rebuild that picked it up has finished.
+ * <p>
+ * Versions are compared when a change is taken from the queue, not when it is queued, and
+ * tombstones of books and authors last until the next {@link #reset}.
+ */
+@Slf4j
+@Component
+public class CoAuthorGraph {
+
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private final Object queueLock = new Object();
+    private final Object rebuildLock = new Object();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "co-author-graph");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot snapshot = new Builder().build();
+    private Map<Integer, Integer> bookVersions = new HashMap<>();
+    private final Set<Integer> removedAuthorIds = new HashSet<>();
+
+    private List<Change> pendingChanges = new ArrayList<>();
+    private CompletableFuture<Void> pendingApplied = new CompletableFuture<>();
+    private CompletableFuture<Void> takenApplied = CompletableFuture.completedFuture(null);
+
+    private sealed interface Change {}
+
+    private record BookLinks(int bookId, int version, int[] authorIds) implements Change {}
+
+    private record AuthorRemoved(int authorId) implements Change {}
+
+    /**
+     * Replaces the whole graph with the links collected by the builder. Changes still queued
+     * are applied on top, as they may have committed after the builder read their books.
+     */
+    public void reset(Builder builder) {
+        synchronized (rebuildLock) {
+            bookVersions = new HashMap<>(builder.bookVersions);
+            removedAuthorIds.clear();
+            rebuild(builder.build());
+        }
+    }
+
+    public void index(Collection<Book> books) {
+        for (Book book : books) {
+            enqueue(new BookLinks(book.getId(), book.getVersion(), authorIdsOf(book)));
+        }
+    }
+
+    public void removeBook(int id) {
+        enqueue(new BookLinks(id, REMOVED, new int[0]));
+    }
+
+    public void removeAuthor(int id) {
+        enqueue(new AuthorRemoved(id));
+    }
+
+    /**
+     * Returns a future that completes once the changes queued so far are visible to readers.
+     */
+    public CompletableFuture<Void> pendingChangesApplied() {
+        synchronized (queueLock) {
+            return pendingChanges.isEmpty() ? takenApplied : pendingApplied;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    public boolean containsAuthor(int id) {
+        return Arrays.binarySearch(snapshot.authorIds, id) >= 0;
+    }
+
+    public boolean containsBook(int id) {
+        return Arrays.binarySearch(snapshot.bookIds, id) >= 0;
+    }
+
+    /**
+     * Returns the authors sharing at least one book with the given one, most shared books first,
+     * or an empty list if the author is not linked to any book.
+     */
+    public List<CoAuthor> findCoAuthors(int authorId) {
+        Snapshot graph = snapshot;
+        int author = Arrays.binarySearch(graph.authorIds, authorId);
+        if (author < 0) {
+            return List.of();
+        }
+        int count = 0;
+        for (int i = graph.authorOffsets[author]; i < graph.authorOffsets[author + 1]; i++) {
+            int book = graph.authorBooks[i];
+            count += graph.bookOffsets[book + 1] - graph.bookOffsets[book] - 1;
+        }
+        int[] neighbours = new int[count];
+        int next = 0;
+        for (int i = graph.authorOffsets[author]; i < graph.authorOffsets[author + 1]; i++) {
+            int book = graph.authorBooks[i];
+            for (int j = graph.bookOffsets[book]; j < graph.bookOffsets[book + 1]; j++) {
+                if (graph.bookAuthors[j] != author) {
+                    neighbours[next++] = graph.bookAuthors[j];
+                }
+            }
+        }
+        Arrays.sort(neighbours);
+        List<CoAuthor> coAuthors = new ArrayList<>();
+        for (int start = 0, end; start < neighbours.length; start = end) {
+            end = start + 1;
+            while (end < neighbours.length && neighbours[end] == neighbours[start]) {
+                end++;
+            }
+            coAuthors.add(new CoAuthor(graph.authorIds[neighbours[start]], end - start));
+        }
+        coAuthors.sort(Comparator.comparingInt(CoAuthor::sharedBooks).reversed());
+        return coAuthors;
+    }
+
+    /**
+     * Returns up to {@code limit} authors reachable over at most {@code maxHops} co-authorships,
+     * nearest first and by id within the same distance, excluding the author itself.
+     */
+    public List<AuthorDistance> findAuthorsWithinHops(int authorId, int maxHops, int limit) {
+        Snapshot graph = snapshot;
+        int author = Arrays.binarySearch(graph.authorIds, authorId);
+        if (author < 0) {
+            return List.of();
+        }
+        BitSet visitedAuthors = new BitSet(graph.authorIds.length);
+        BitSet visitedBooks = new BitSet(graph.bookIds.length);
+        visitedAuthors.set(author);
+        int[] frontier = {author};
+        List<AuthorDistance> result = new ArrayList<>();
+        for (int hops = 1; hops <= maxHops && frontier.length > 0 && result.size() < limit; hops++) {
+            BitSet reached = new BitSet(graph.authorIds.length);
+            for (int current : frontier) {
+                for (int i = graph.authorOffsets[current]; i < graph.authorOffsets[current + 1]; i++) {
+                    int book = graph.authorBooks[i];
+                    if (visitedBooks.get(book)) {
+                        continue;
+                    }
+                    visitedBooks.set(book);
+                    for (int j = graph.bookOffsets[book]; j < graph.bookOffsets[book + 1]; j++) {
+                        if (!visitedAuthors.get(graph.bookAuthors[j])) {
+                            reached.set(graph.bookAuthors[j]);
+                        }
+                    }
+                }
+            }
+            visitedAuthors.or(reached);
+            frontier = reached.stream().toArray();
+            for (int i = 0; i < frontier.length && result.size() < limit; i++) {
+                result.add(new AuthorDistance(graph.authorIds[frontier[i]], hops));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of the books both authors are linked to, in ascending order.
+     */
+    public int[] findSharedBookIds(int authorId, int otherAuthorId) {
+        Snapshot graph = snapshot;
+        int author = Arrays.binarySearch(graph.authorIds, authorId);
+        int other = Arrays.binarySearch(graph.authorIds, otherAuthorId);
+        if (author < 0 || other < 0) {
+            return new int[0];
+        }
+        int i = graph.authorOffsets[author];
+        int j = graph.authorOffsets[other];
+        int[] shared = new int[Math.min(graph.authorOffsets[author + 1] - i, graph.authorOffsets[other + 1] - j)];
+        int count = 0;
+        while (i < graph.authorOffsets[author + 1] && j < graph.authorOffsets[other + 1]) {
+            int cmp = Integer.compare(graph.authorBooks[i], graph.authorBooks[j]);
+            if (cmp == 0) {
+                shared[count++] = graph.bookIds[graph.authorBooks[i]];
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(shared, count);
+    }
+
+    /**
+     * Queues a change; the first change after a rebuild has taken the queue schedules the next one.
+     */
+    private void enqueue(Change change) {
+        synchronized (queueLock) {
+            pendingChanges.add(change);
+            if (pendingChanges.size() == 1) {
+                worker.execute(() -> {
+                    synchronized (rebuildLock) {
+                        rebuild(snapshot);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Publishes {@code base} with the queued changes applied; to be called holding {@code rebuildLock}.
+     */
+    private void rebuild(Snapshot base) {
+        List<Change> changes;
+        CompletableFuture<Void> applied;
+        synchronized (queueLock) {
+            changes = pendingChanges;
+            applied = pendingApplied;
+            pendingChanges = new ArrayList<>();
+            pendingApplied = new CompletableFuture<>();
+            takenApplied = applied;
+        }
+        try {
+            snapshot = changes.isEmpty() ? base : apply(base, changes);
+        } catch (RuntimeException e) {
+            log.error("Rebuilding the co-author graph failed, {} changes are lost until the next reload", changes.size(), e);
+        } finally {
+            applied.complete(null);
+        }
+    }
+
+    /**
+     * Rebuilds {@code current} with the changes that are not older than the indexed versions;
+     * to be called holding {@code rebuildLock}.
+     */
+    private Snapshot apply(Snapshot current, List<Change> changes) {
+        Map<Integer, int[]> changedBooks = new HashMap<>();
+        List<Integer> newlyRemovedAuthorIds = new ArrayList<>();
+        for (Change change : changes) {
+            switch (change) {
+                case BookLinks links -> {
+                    Integer indexedVersion = bookVersions.get(links.bookId());
+                    if (indexedVersion == null || indexedVersion <= links.version()) {
+                        bookVersions.put(links.bookId(), links.version());
+                        changedBooks.put(links.bookId(), links.authorIds());
+                    }
+                }
+                case AuthorRemoved removed -> {
+                    if (removedAuthorIds.add(removed.authorId())) {
+                        newlyRemovedAuthorIds.add(removed.authorId());
+                    }
+                }
+            }
+        }
+        if (changedBooks.isEmpty() && newlyRemovedAuthorIds.isEmpty()) {
+            return current;
+        }
+        BitSet removedAuthors = new BitSet(current.authorIds.length);
+        for (int authorId : newlyRemovedAuthorIds) {
+            int author = Arrays.binarySearch(current.authorIds, authorId);
+            if (author >= 0) {
+                removedAuthors.set(author);
+            }
+        }
+
+        Builder builder = new Builder();
+        for (int book = 0; book < current.bookIds.length; book++) {
+            int bookId = current.bookIds[book];
+            if (changedBooks.containsKey(bookId)) {
+                continue;
+            }
+            for (int i = current.bookOffsets[book]; i < current.bookOffsets[book + 1]; i++) {
+                if (!removedAuthors.get(current.bookAuthors[i])) {
+                    builder.add(bookId, current.authorIds[current.bookAuthors[i]]);
+                }
+            }
+        }
+        for (Map.Entry<Integer, int[]> changedBook : changedBooks.entrySet()) {
+            for (int authorId : changedBook.getValue()) {
+                if (!removedAuthorIds.contains(authorId)) {
+                    builder.add(changedBook.getKey(), authorId);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static int[] authorIdsOf(Book book) {
+        return book.getAuthors().stream().mapToInt(Author::getId).toArray();
+    }
+
+    /**
+     * CSR arrays of both directions. Adjacency lists hold indexes into the id arrays and are
+     * sorted, so they can be intersected by merging.
+     */
+    private record Snapshot(int[] bookIds, int[] bookOffsets, int[] bookAuthors,
+                            int[] authorIds, int[] authorOffsets, int[] authorBooks) {}
+
+    /**
+     * Collects (book, author) links in any order, e.g. while streaming the catalog.
+     */
+    public static class Builder {
+
+        private final Map<Integer, Integer> bookVersions = new HashMap<>();
+        private long[] links = new long[1024];
+        private int size;
+
+        public Builder add(Book book) {
+            bookVersions.put(book.getId(), book.getVersion());
+            for (int authorId : authorIdsOf(book)) {
+                add(book.getId(), authorId);
+            }
+            return this;
+        }
+
+        private void add(int bookId, int authorId) {
+            if (size == links.length) {
+                links = Arrays.copyOf(links, size * 2);
+            }
+            links[size++] = ((long) bookId << 32) | (authorId & 0xFFFFFFFFL);
+        }
+
+        private Snapshot build() {
+            long[] sorted = Arrays.copyOf(links, size);
+            Arrays.sort(sorted);
+            int[] bookIds = new int[sorted.length];
+            int[] authorIds = new int[sorted.length];
+            int books = 0;
+            int edges = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) {
+                    continue;
+                }
+                int bookId = (int) (sorted[i] >> 32);
+                if (books == 0 || bookIds[books - 1] != bookId) {
+                    bookIds[books++] = bookId;
+                }
+                authorIds[edges++] = (int) sorted[i];
+            }
+            bookIds = Arrays.copyOf(bookIds, books);
+            int[] linkAuthorIds = Arrays.copyOf(authorIds, edges);
+            int[] distinctAuthorIds = Arrays.stream(linkAuthorIds).sorted().distinct().toArray();
+
+            int[] bookOffsets = new int[books + 1];
+            int[] bookAuthors = new int[edges];
+            int[] authorDegrees = new int[distinctAuthorIds.length + 1];
+            int book = -1;
+            int previousBookId = 0;
+            for (int i = 0, edge = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) {
+                    continue;
+                }
+                int bookId = (int) (sorted[i] >> 32);
+                if (book < 0 || bookId != previousBookId) {
+                    bookOffsets[++book] = edge;
+                    previousBookId = bookId;
+                }
+                int author = Arrays.binarySearch(distinctAuthorIds, (int) sorted[i]);
+                bookAuthors[edge++] = author;
+                authorDegrees[author + 1]++;
+            }
+            bookOffsets[books] = edges;
+
+            int[] authorOffsets = authorDegrees;
+            for (int i = 1; i < authorOffsets.length; i++) {
+                authorOffsets[i] += authorOffsets[i - 1];
+            }
+            int[] authorBooks = new int[edges];
+            int[] fill = Arrays.copyOf(authorOffsets, distinctAuthorIds.length);
+            for (int b = 0; b < books; b++) {
+                for (int i = bookOffsets[b]; i < bookOffsets[b + 1]; i++) {
+                    authorBooks[fill[bookAuthors[i]]++] = b;
+                }
+            }
+            return new Snapshot(bookIds, bookOffsets, bookAuthors, distinctAuthorIds, authorOffsets, authorBooks);
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package api.book_list.index;
+
+import api.book_list.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash index from canonical ISBN keys to book ids, which lets ISBN lookups be served from the
+ * book cache. It only sees the writes of this instance, so a hit has to be checked against the
+ * book it leads to, and a miss does not mean the key is not in the catalog.
+ */
+@Component
+public class IsbnIndex {
+
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> bookIdsByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedKey> keysByBookId = new HashMap<>();
+
+    private record IndexedKey(String key, int version) {}
+
+    public synchronized void index(Book book) {
+        IndexedKey previous = keysByBookId.get(book.getId());
+        if (previous != null && previous.version() > book.getVersion()) {
+            return;
+        }
+        String key = book.getIsbnKey();
+        keysByBookId.put(book.getId(), new IndexedKey(key, book.getVersion()));
+        if (previous != null && previous.key() != null && !previous.key().equals(key)) {
+            bookIdsByKey.remove(previous.key(), book.getId());
+        }
+        if (key != null) {
+            bookIdsByKey.put(key, book.getId());
+        }
+    }
+
+    public synchronized void removeBook(int id) {
+        IndexedKey previous = keysByBookId.put(id, new IndexedKey(null, REMOVED));
+        if (previous != null && previous.key() != null) {
+            bookIdsByKey.remove(previous.key(), id);
+        }
+    }
+
+    /**
+     * Returns the id of the book with the given canonical key, or {@code null} if none is indexed.
+     */
+    public Integer findBookId(String key) {
+        return bookIdsByKey.get(key);
+    }
+
+    public synchronized void clear() {
+        bookIdsByKey.clear();
+        keysByBookId.clear();
+    }
+
+}
@@ -1,18 +1,41 @@
 package api.book_list.repository;
 
+import api.book_list.dto.AuthorSummary;
 import api.book_list.entity.Author;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface AuthorRepository extends JpaRepository<Author, Integer> {
+public interface AuthorRepository extends JpaRepository<Author, Integer>, AuthorRepositoryCustom {
 
-    List<Author> findByBooksId(int id);
+    @Query("SELECT new api.book_list.dto.AuthorSummary(a.id, a.firstName, a.lastName) FROM Author a JOIN a.books b WHERE b.id = :bookId ORDER BY a.id")
+    List<AuthorSummary> findSummariesByBookId(@Param("bookId") int bookId);
 
-    @Query("SELECT a FROM Author a LEFT JOIN FETCH a.books WHERE a.id = :id")
-    Optional<Author> findAuthorWithBooksById(@Param("id") int id);
+    @Transactional(readOnly = true)
+    @Query("SELECT new api.book_list.dto.AuthorSummary(a.id, a.firstName, a.lastName) FROM Author a")
+    List<AuthorSummary> findAllSummaries();
+
+    List<Author> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT a.version FROM Author a WHERE a.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
+
+    /**
+     * Reads from the primary, as read-write transactions are never routed to a replica.
+     */
+    @Transactional
+    @Query("SELECT a FROM Author a WHERE a.id = :id")
+    Optional<Author> findOnPrimaryById(@Param("id") int id);
+
+    @Modifying
+    @Query(value = "DELETE FROM Author WHERE AuthorID = :id", nativeQuery = true)
+    int deleteAndCountById(@Param("id") int id);
 
 }
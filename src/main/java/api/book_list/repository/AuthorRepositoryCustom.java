@@ -0,0 +1,31 @@
+package api.book_list.repository;
+
+import api.book_list.entity.Author;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AuthorRepositoryCustom {
+
+    /**
+     * Sets the given non-null columns and increments the version in a single statement,
+     * optionally only while the version is one of {@code expectedVersions}.
+     *
+     * @return the number of updated rows, 0 if the author does not exist or its version differs
+     */
+    int updateColumns(int id, Collection<Integer> expectedVersions, String firstName, String lastName);
+
+    /**
+     * Reads the ID and the given columns of up to {@code limit} authors with an ID greater than
+     * {@code after}, ordered by ID, into detached instances whose other properties are {@code null}.
+     */
+    List<Author> findAttributesAfter(int after, int limit, Collection<String> attributes);
+
+    /**
+     * Reads the ID, the version and the given columns of an author into a detached instance
+     * whose other properties are {@code null}.
+     */
+    Optional<Author> findAttributesById(int id, Collection<String> attributes);
+
+}
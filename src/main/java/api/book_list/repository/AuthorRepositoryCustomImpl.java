@@ -0,0 +1,91 @@
+package api.book_list.repository;
+
+import api.book_list.entity.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+class AuthorRepositoryCustomImpl implements AuthorRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    AuthorRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateColumns(int id, Collection<Integer> expectedVersions, String firstName, String lastName) {
+        if (expectedVersions != null && expectedVersions.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Author> update = cb.createCriteriaUpdate(Author.class);
+        Root<Author> author = update.from(Author.class);
+        if (firstName != null) {
+            update.set(author.<String>get("firstName"), firstName);
+        }
+        if (lastName != null) {
+            update.set(author.<String>get("lastName"), lastName);
+        }
+        update.set(author.<Integer>get("version"), cb.sum(author.<Integer>get("version"), 1));
+        Predicate byId = cb.equal(author.get("id"), id);
+        update.where(expectedVersions == null ? byId : cb.and(byId, author.get("version").in(expectedVersions)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Author> findAttributesAfter(int after, int limit, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Author> author = query.from(Author.class);
+        query.multiselect(selections(author, attributes))
+                .where(cb.gt(author.get("id"), after))
+                .orderBy(cb.asc(author.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> toAuthor(row, attributes))
+                .toList();
+    }
+
+    @Override
+    public Optional<Author> findAttributesById(int id, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Author> author = query.from(Author.class);
+        List<Selection<?>> selections = selections(author, attributes);
+        selections.add(author.get("version").alias("version"));
+        query.multiselect(selections).where(cb.equal(author.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst().map(row -> {
+            Author result = toAuthor(row, attributes);
+            result.setVersion(row.get("version", Integer.class));
+            return result;
+        });
+    }
+
+    private static List<Selection<?>> selections(Root<Author> author, Collection<String> attributes) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(author.get("id").alias("id"));
+        attributes.forEach(attribute -> selections.add(author.get(attribute).alias(attribute)));
+        return selections;
+    }
+
+    private static Author toAuthor(Tuple row, Collection<String> attributes) {
+        Author author = new Author(
+                attributes.contains("firstName") ? row.get("firstName", String.class) : null,
+                attributes.contains("lastName") ? row.get("lastName", String.class) : null);
+        author.setId(row.get("id", Integer.class));
+        return author;
+    }
+
+}
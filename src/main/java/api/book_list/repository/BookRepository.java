@@ -1,13 +1,76 @@
 package api.book_list.repository;
 
+import api.book_list.dto.BookAuthorLink;
+import api.book_list.dto.BookSummary;
 import api.book_list.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Integer> {
+public interface BookRepository extends JpaRepository<Book, Integer>, BookRepositoryCustom {
 
-    List<Book> findByAuthorsId(int id);
+    @Override
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findAll();
 
-}
+    @Query("SELECT new api.book_list.dto.BookSummary(b.id, b.title, b.isbn) FROM Book b WHERE b.id > :after ORDER BY b.id")
+    List<BookSummary> findSummariesAfter(@Param("after") int after, Limit limit);
+
+    @Query("SELECT new api.book_list.dto.BookSummary(b.id, b.title, b.isbn) FROM Book b JOIN b.authors a WHERE a.id = :authorId ORDER BY b.id")
+    List<BookSummary> findSummariesByAuthorId(@Param("authorId") int authorId);
+
+    @Query(value = "SELECT BookID AS \"bookId\", AuthorID AS \"authorId\" FROM Book_Author WHERE BookID IN (:bookIds) ORDER BY BookID, AuthorID",
+            nativeQuery = true)
+    List<BookAuthorLink> findAuthorLinks(@Param("bookIds") Collection<Integer> bookIds);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "authors")
+    Optional<Book> findByIsbnKey(String isbnKey);
+
+    /**
+     * Reads from the primary, as read-write transactions are never routed to a replica.
+     */
+    @Transactional
+    @EntityGraph(attributePaths = "authors")
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findOnPrimaryById(@Param("id") int id);
+
+    @Query("SELECT b.isbnKey FROM Book b WHERE b.isbnKey IN :isbnKeys")
+    List<String> findExistingIsbnKeys(@Param("isbnKeys") Collection<String> isbnKeys);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
 
+    @Query("SELECT b.id FROM Book b JOIN b.authors a WHERE a.id = :authorId")
+    List<Integer> findIdsByAuthorsId(@Param("authorId") int authorId);
+
+    @Modifying
+    @Query(value = "UPDATE Book SET Version = Version + 1 WHERE BookID IN (SELECT BookID FROM Book_Author WHERE AuthorID = :authorId)",
+            nativeQuery = true)
+    int incrementVersionsByAuthorId(@Param("authorId") int authorId);
+
+    @Modifying
+    @Query(value = "DELETE FROM Book_Author WHERE AuthorID = :authorId", nativeQuery = true)
+    int deleteAuthorLinks(@Param("authorId") int authorId);
+
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.authors ORDER BY b.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Book> streamAllWithAuthors();
+
+}
@@ -0,0 +1,40 @@
+package api.book_list.repository;
+
+import api.book_list.dto.BookSummary;
+import api.book_list.entity.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Sets the given non-null columns and increments the version in a single statement,
+     * optionally only while the version is one of {@code expectedVersions}.
+     *
+     * @return the number of updated rows, 0 if the book does not exist or its version differs
+     */
+    int updateColumns(int id, Collection<Integer> expectedVersions, String title, String isbn);
+
+    /**
+     * Makes the given authors the only ones linked to the book, deleting and inserting only
+     * the rows that differ. Ids of authors that do not exist are skipped.
+     */
+    void replaceAuthorLinks(int bookId, Collection<Integer> authorIds);
+
+    /**
+     * Reads the ID and the given columns of up to {@code limit} books with an ID greater than
+     * {@code after}, ordered by ID, without joining the authors. Properties that are not read,
+     * including the author ids, are {@code null}.
+     */
+    List<BookSummary> findAttributesAfter(int after, int limit, Collection<String> attributes);
+
+    /**
+     * Reads the ID, the version and the given columns of a book into a detached instance,
+     * without joining the authors. Properties that are not read, including the authors,
+     * are {@code null}.
+     */
+    Optional<Book> findAttributesById(int id, Collection<String> attributes);
+
+}
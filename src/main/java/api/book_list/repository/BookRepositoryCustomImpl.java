@@ -0,0 +1,116 @@
+package api.book_list.repository;
+
+import api.book_list.dto.BookSummary;
+import api.book_list.entity.Book;
+import api.book_list.entity.Isbn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    BookRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateColumns(int id, Collection<Integer> expectedVersions, String title, String isbn) {
+        if (expectedVersions != null && expectedVersions.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> book = update.from(Book.class);
+        if (title != null) {
+            update.set(book.<String>get("title"), title);
+        }
+        if (isbn != null) {
+            String isbnKey = Isbn.canonicalize(isbn);
+            update.set(book.<String>get("isbn"), isbn);
+            update.set(book.<String>get("isbnKey"), isbnKey != null ? cb.literal(isbnKey) : cb.nullLiteral(String.class));
+        }
+        update.set(book.<Integer>get("version"), cb.sum(book.<Integer>get("version"), 1));
+        Predicate byId = cb.equal(book.get("id"), id);
+        update.where(expectedVersions == null ? byId : cb.and(byId, book.get("version").in(expectedVersions)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public void replaceAuthorLinks(int bookId, Collection<Integer> authorIds) {
+        if (authorIds.isEmpty()) {
+            entityManager.createNativeQuery("DELETE FROM Book_Author WHERE BookID = :bookId")
+                    .setParameter("bookId", bookId)
+                    .executeUpdate();
+            return;
+        }
+        entityManager.createNativeQuery("DELETE FROM Book_Author WHERE BookID = :bookId AND AuthorID NOT IN (:authorIds)")
+                .setParameter("bookId", bookId)
+                .setParameter("authorIds", authorIds)
+                .executeUpdate();
+        entityManager.createNativeQuery("INSERT INTO Book_Author (BookID, AuthorID) SELECT :bookId, a.AuthorID FROM Author a"
+                        + " WHERE a.AuthorID IN (:authorIds)"
+                        + " AND NOT EXISTS (SELECT 1 FROM Book_Author ba WHERE ba.BookID = :bookId AND ba.AuthorID = a.AuthorID)")
+                .setParameter("bookId", bookId)
+                .setParameter("authorIds", authorIds)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<BookSummary> findAttributesAfter(int after, int limit, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        query.multiselect(selections(book, attributes))
+                .where(cb.gt(book.get("id"), after))
+                .orderBy(cb.asc(book.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new BookSummary(row.get("id", Integer.class), attribute(row, attributes, "title"),
+                        attribute(row, attributes, "isbn"), null))
+                .toList();
+    }
+
+    @Override
+    public Optional<Book> findAttributesById(int id, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        List<Selection<?>> selections = selections(book, attributes);
+        selections.add(book.get("version").alias("version"));
+        query.multiselect(selections).where(cb.equal(book.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst().map(row -> {
+            Book result = new Book();
+            result.setId(id);
+            result.setVersion(row.get("version", Integer.class));
+            result.setTitle(attribute(row, attributes, "title"));
+            result.setIsbn(attribute(row, attributes, "isbn"));
+            result.setAuthors(null);
+            return result;
+        });
+    }
+
+    private static List<Selection<?>> selections(Root<Book> book, Collection<String> attributes) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(book.get("id").alias("id"));
+        attributes.forEach(attribute -> selections.add(book.get(attribute).alias(attribute)));
+        return selections;
+    }
+
+    private static String attribute(Tuple row, Collection<String> attributes, String attribute) {
+        return attributes.contains(attribute) ? row.get(attribute, String.class) : null;
+    }
+
+}
@@ -1,9 +1,19 @@
 package api.book_list.service;
 
+import api.book_list.dto.AuthorDistance;
+import api.book_list.dto.AuthorSummary;
+import api.book_list.dto.BatchItemResult;
+import api.book_list.dto.BatchLookupResult;
+import api.book_list.dto.BookSummary;
+import api.book_list.dto.CoAuthor;
+import api.book_list.dto.CursorPage;
 import api.book_list.entity.Author;
 import api.book_list.entity.Book;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookService {
 
@@ -11,24 +21,64 @@ public interface BookService {
 
     List<Author> findAllAuthors();
 
+    CursorPage<BookSummary> findBooks(int after, int limit);
+
+    CursorPage<Author> findAuthors(int after, int limit);
+
+    CursorPage<BookSummary> findBooks(int after, int limit, Set<String> fields);
+
+    CursorPage<Author> findAuthors(int after, int limit, Set<String> fields);
+
+    void forEachBook(Consumer<Book> action);
+
+    List<Book> searchBooks(String query, int limit);
+
     Book saveBook(Book book);
 
     Author saveAuthor(Author author);
 
+    List<BatchItemResult> saveBooks(List<Book> books);
+
+    List<BatchItemResult> saveAuthors(List<Author> authors);
+
     Book findBookById(int id);
 
     Author findAuthorById(int id);
 
+    Book findBookById(int id, Set<String> fields);
+
+    Author findAuthorById(int id, Set<String> fields);
+
+    BatchLookupResult<Book> findBooksByIds(List<Integer> ids);
+
+    BatchLookupResult<Author> findAuthorsByIds(List<Integer> ids);
+
+    Book findBookByIsbn(String isbn);
+
+    int findBookVersion(int id);
+
+    int findAuthorVersion(int id);
+
     void deleteBook(Book book);
 
-    void deleteAuthor(Author author);
+    void deleteAuthor(int id);
+
+    List<AuthorSummary> findAuthorsByBookId(int id);
+
+    List<BookSummary> findBooksByAuthorId(int id);
+
+    List<CoAuthor> findCoAuthors(int id);
+
+    List<AuthorDistance> findAuthorsWithinHops(int id, int maxHops, int limit);
+
+    int[] findSharedBookIds(int id, int otherId);
 
-    List<Author> findAuthorsByBookId(int id);
+    Book replaceBook(Book book, Collection<Integer> expectedVersions);
 
-    List<Book> findBooksByAuthorId(int id);
+    Book changeBook(int id, Book editedBook, Collection<Integer> expectedVersions);
 
-    void changeBook(Book existingBook, Book editedBook);
+    Author replaceAuthor(Author author, Collection<Integer> expectedVersions);
 
-    void changeAuthor(Author existingAuthor, Author editedAuthor);
+    Author changeAuthor(int id, Author editedAuthor, Collection<Integer> expectedVersions);
 
 }
@@ -1,37 +1,185 @@
 package api.book_list.service;
 
+import api.book_list.changes.ChangeFeed;
+import api.book_list.configuration.CacheConfig;
+import api.book_list.dto.AuthorDistance;
+import api.book_list.dto.AuthorSummary;
+import api.book_list.dto.BatchItemResult;
+import api.book_list.dto.BatchLookupResult;
+import api.book_list.dto.BookAuthorLink;
+import api.book_list.dto.BookSummary;
+import api.book_list.dto.ChangeEvent;
+import api.book_list.dto.CoAuthor;
+import api.book_list.dto.CursorPage;
 import api.book_list.entity.Author;
 import api.book_list.entity.Book;
+import api.book_list.entity.Isbn;
+import api.book_list.exception.NotFoundException;
+import api.book_list.index.BookSearchIndex;
+import api.book_list.index.CoAuthorGraph;
+import api.book_list.index.IsbnIndex;
 import api.book_list.repository.AuthorRepository;
 import api.book_list.repository.BookRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "book-list.service", description = "Time spent in BookService methods", histogram = true)
 public class BookServiceImpl implements BookService {
 
+    private static final List<String> BOOK_SUMMARY_FIELDS = List.of("id", "title", "isbn", "authorIds");
+    private static final List<String> BOOK_FIELDS = List.of("id", "title", "isbn", "authors");
+    private static final List<String> AUTHOR_FIELDS = List.of("id", "firstName", "lastName");
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final Cache bookCache;
+    private final Cache authorCache;
+    private final AsyncCache<Object, Object> asyncBookCache;
+    private final AsyncCache<Object, Object> asyncAuthorCache;
+    private final BookSearchIndex searchIndex;
+    private final IsbnIndex isbnIndex;
+    private final CoAuthorGraph coAuthorGraph;
+    private final ChangeFeed changeFeed;
+    private final int maxPageLimit;
+    private final int maxBatchSize;
+    private final int maxGraphHops;
 
-    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository) {
+    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository, EntityManager entityManager,
+                           Validator validator, CacheManager cacheManager, BookSearchIndex searchIndex, IsbnIndex isbnIndex,
+                           CoAuthorGraph coAuthorGraph, ChangeFeed changeFeed,
+                           @Value("${book-list.pagination.max-limit:1000}") int maxPageLimit,
+                           @Value("${book-list.batch.max-size:1000}") int maxBatchSize,
+                           @Value("${book-list.graph.max-hops:4}") int maxGraphHops) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.bookCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BOOKS));
+        this.authorCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.AUTHORS));
+        this.asyncBookCache = asyncCacheOf(bookCache);
+        this.asyncAuthorCache = asyncCacheOf(authorCache);
+        this.searchIndex = searchIndex;
+        this.isbnIndex = isbnIndex;
+        this.coAuthorGraph = coAuthorGraph;
+        this.changeFeed = changeFeed;
+        this.maxPageLimit = maxPageLimit;
+        this.maxBatchSize = maxBatchSize;
+        this.maxGraphHops = maxGraphHops;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findAllBooks() {
         return bookRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Author> findAllAuthors() {
         return authorRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummary> findBooks(int after, int limit) {
+        checkPageLimit(limit);
+        CursorPage<BookSummary> page = CursorPage.of(bookRepository.findSummariesAfter(after, Limit.of(limit + 1)), limit, BookSummary::id);
+        return new CursorPage<>(withAuthorIds(page.content()), page.nextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Author> findAuthors(int after, int limit) {
+        checkPageLimit(limit);
+        List<Author> authors = authorRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+        return CursorPage.of(authors, limit, Author::getId);
+    }
+
+    /**
+     * Reads only the columns of the requested fields, and the author links only if the author
+     * ids are requested.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummary> findBooks(int after, int limit, Set<String> fields) {
+        checkPageLimit(limit);
+        Set<String> selected = checkFields(fields, BOOK_SUMMARY_FIELDS);
+        List<BookSummary> books = bookRepository.findAttributesAfter(after, limit + 1, columns(selected, "title", "isbn"));
+        CursorPage<BookSummary> page = CursorPage.of(books, limit, BookSummary::id);
+        return selected.contains("authorIds") ? new CursorPage<>(withAuthorIds(page.content()), page.nextCursor()) : page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Author> findAuthors(int after, int limit, Set<String> fields) {
+        checkPageLimit(limit);
+        Set<String> selected = checkFields(fields, AUTHOR_FIELDS);
+        List<Author> authors = authorRepository.findAttributesAfter(after, limit + 1, columns(selected, "firstName", "lastName"));
+        return CursorPage.of(authors, limit, Author::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> action) {
+        try (Stream<Book> books = bookRepository.streamAllWithAuthors()) {
+            books.forEach(book -> {
+                action.accept(book);
+                book.getAuthors().forEach(entityManager::detach);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> searchBooks(String query, int limit) {
+        checkPageLimit(limit);
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        List<Integer> rankedIds = searchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Book> books = bookRepository.findByIdInOrderByIdAsc(rankedIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     @Transactional
     public Book saveBook(Book book) {
@@ -41,110 +189,643 @@ public class BookServiceImpl implements BookService {
                     .collect(Collectors.toSet());
             List<Author> fetchedAuthors = authorRepository.findAllById(authorIds);
             if (fetchedAuthors.size() != authorIds.size()) {
-                throw new EntityNotFoundException("Some authors were not found");
+                throw new NotFoundException("Some authors were not found");
             }
             book.setAuthors(new LinkedHashSet<>(fetchedAuthors));
         }
-        return bookRepository.save(book);
+        ChangeEvent.Op op = book.getId() == 0 ? ChangeEvent.Op.CREATED : ChangeEvent.Op.UPDATED;
+        if (op == ChangeEvent.Op.UPDATED) {
+            evictBook(book.getId());
+        }
+        Book savedBook = bookRepository.save(book);
+        afterCommit(() -> {
+            indexBook(savedBook);
+            coAuthorGraph.index(List.of(savedBook));
+            changeFeed.publish(ChangeEvent.Entity.BOOK, savedBook.getId(), op, savedBook.getVersion());
+        });
+        return savedBook;
     }
 
     @Override
+    @Transactional
     public Author saveAuthor(Author author) {
-        return authorRepository.save(author);
+        ChangeEvent.Op op = author.getId() == 0 ? ChangeEvent.Op.CREATED : ChangeEvent.Op.UPDATED;
+        if (op == ChangeEvent.Op.UPDATED) {
+            evictAuthorWithBooks(author.getId(), bookRepository.findIdsByAuthorsId(author.getId()));
+        }
+        Author savedAuthor = authorRepository.save(author);
+        afterCommit(() -> {
+            searchIndex.index(savedAuthor);
+            changeFeed.publish(ChangeEvent.Entity.AUTHOR, savedAuthor.getId(), op, savedAuthor.getVersion());
+        });
+        return savedAuthor;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> saveBooks(List<Book> books) {
+        checkBatchSize(books.size());
+        Set<Integer> authorIds = books.stream()
+                .flatMap(book -> book.getAuthors().stream())
+                .map(Author::getId)
+                .collect(Collectors.toSet());
+        Map<Integer, Author> fetchedAuthors = authorIds.isEmpty() ? Map.of() : authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+
+        Set<String> isbnKeys = books.stream()
+                .map(Book::getIsbnKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> takenIsbnKeys = isbnKeys.isEmpty() ? new HashSet<>() : new HashSet<>(bookRepository.findExistingIsbnKeys(isbnKeys));
+
+        BatchItemResult[] results = new BatchItemResult[books.size()];
+        List<Book> acceptedBooks = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            String violations = describeViolations(validator.validate(book));
+            if (violations != null) {
+                results[i] = BatchItemResult.rejected(i, HttpStatus.BAD_REQUEST, violations);
+                continue;
+            }
+            String isbnKey = book.getIsbnKey();
+            if (isbnKey != null && !takenIsbnKeys.add(isbnKey)) {
+                results[i] = BatchItemResult.rejected(i, HttpStatus.CONFLICT, "Book with ISBN " + book.getIsbn() + " already exists");
+                continue;
+            }
+            Set<Author> bookAuthors = new LinkedHashSet<>();
+            for (Author author : book.getAuthors()) {
+                Author fetchedAuthor = fetchedAuthors.get(author.getId());
+                if (fetchedAuthor == null) {
+                    results[i] = BatchItemResult.rejected(i, HttpStatus.NOT_FOUND, "Some authors were not found");
+                    break;
+                }
+                bookAuthors.add(fetchedAuthor);
+            }
+            if (results[i] == null) {
+                book.setAuthors(bookAuthors);
+                acceptedBooks.add(book);
+            }
+        }
+
+        bookRepository.saveAll(acceptedBooks);
+        afterCommit(() -> {
+            coAuthorGraph.index(acceptedBooks);
+            acceptedBooks.forEach(savedBook -> {
+                indexBook(savedBook);
+                changeFeed.publish(ChangeEvent.Entity.BOOK, savedBook.getId(), ChangeEvent.Op.CREATED, savedBook.getVersion());
+            });
+        });
+        Iterator<Book> savedBooks = acceptedBooks.iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BatchItemResult.created(i, savedBooks.next().getId());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> saveAuthors(List<Author> authors) {
+        checkBatchSize(authors.size());
+        BatchItemResult[] results = new BatchItemResult[authors.size()];
+        List<Author> acceptedAuthors = new ArrayList<>();
+        for (int i = 0; i < authors.size(); i++) {
+            String violations = describeViolations(validator.validate(authors.get(i)));
+            if (violations != null) {
+                results[i] = BatchItemResult.rejected(i, HttpStatus.BAD_REQUEST, violations);
+            } else {
+                acceptedAuthors.add(authors.get(i));
+            }
+        }
+
+        authorRepository.saveAll(acceptedAuthors);
+        afterCommit(() -> acceptedAuthors.forEach(savedAuthor -> {
+            searchIndex.index(savedAuthor);
+            changeFeed.publish(ChangeEvent.Entity.AUTHOR, savedAuthor.getId(), ChangeEvent.Op.CREATED, savedAuthor.getVersion());
+        }));
+        Iterator<Author> savedAuthors = acceptedAuthors.iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BatchItemResult.created(i, savedAuthors.next().getId());
+            }
+        }
+        return Arrays.asList(results);
     }
 
+    /**
+     * Loads through a pending future per id, so concurrent misses for the same id wait for one
+     * fetch instead of each querying the database. A missing id completes it without a value
+     * rather than failing it, so only the caller's exception is created, without a stack trace.
+     * Misses are read from the primary: the entry is shared by all clients, and a state read
+     * from a lagging replica would outlive the read-your-writes window of the client that
+     * wrote it.
+     */
     @Override
     public Book findBookById(int id) {
-        Optional<Book> result = bookRepository.findById(id);
-        Book book;
-        if (result.isPresent()) {
-            book = result.get();
-        } else {
-            throw new EntityNotFoundException("No result found for book with ID: " + id);
+        return findCached(asyncBookCache, id, bookRepository::findOnPrimaryById, NotFoundException::book);
+    }
+
+    @Override
+    public Author findAuthorById(int id) {
+        return findCached(asyncAuthorCache, id, authorRepository::findOnPrimaryById, NotFoundException::author);
+    }
+
+    /**
+     * Projects a cached book; otherwise reads only the columns of the requested fields, and the
+     * authors only if they are requested. The projection is not cached.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Book findBookById(int id, Set<String> fields) {
+        Set<String> selected = checkFields(fields, BOOK_FIELDS);
+        Book cachedBook = bookCache.get(id, Book.class);
+        if (cachedBook != null) {
+            Book book = new Book();
+            book.setId(id);
+            book.setVersion(cachedBook.getVersion());
+            book.setTitle(selected.contains("title") ? cachedBook.getTitle() : null);
+            book.setIsbn(selected.contains("isbn") ? cachedBook.getIsbn() : null);
+            book.setAuthors(selected.contains("authors") ? cachedBook.getAuthors() : null);
+            return book;
+        }
+        Book book = bookRepository.findAttributesById(id, columns(selected, "title", "isbn"))
+                .orElseThrow(() -> NotFoundException.book(id));
+        if (selected.contains("authors")) {
+            Set<Author> authors = new LinkedHashSet<>();
+            for (AuthorSummary summary : authorRepository.findSummariesByBookId(id)) {
+                Author author = new Author(summary.firstName(), summary.lastName());
+                author.setId(summary.id());
+                authors.add(author);
+            }
+            book.setAuthors(authors);
         }
         return book;
     }
 
     @Override
-    public Author findAuthorById(int id) {
-        Optional<Author> result = authorRepository.findById(id);
-        Author author;
-        if (result.isPresent()) {
-            author = result.get();
-        } else {
-            throw new EntityNotFoundException("No result found for author with ID: " + id);
+    @Transactional(readOnly = true)
+    public Author findAuthorById(int id, Set<String> fields) {
+        Set<String> selected = checkFields(fields, AUTHOR_FIELDS);
+        Author cachedAuthor = authorCache.get(id, Author.class);
+        if (cachedAuthor != null) {
+            Author author = new Author(selected.contains("firstName") ? cachedAuthor.getFirstName() : null,
+                    selected.contains("lastName") ? cachedAuthor.getLastName() : null);
+            author.setId(id);
+            author.setVersion(cachedAuthor.getVersion());
+            return author;
+        }
+        return authorRepository.findAttributesById(id, columns(selected, "firstName", "lastName"))
+                .orElseThrow(() -> NotFoundException.author(id));
+    }
+
+    @Override
+    public BatchLookupResult<Book> findBooksByIds(List<Integer> ids) {
+        return findByIds(ids, bookCache, Book.class, bookRepository::findByIdInOrderByIdAsc, Book::getId);
+    }
+
+    @Override
+    public BatchLookupResult<Author> findAuthorsByIds(List<Integer> ids) {
+        return findByIds(ids, authorCache, Author.class, authorRepository::findAllById, Author::getId);
+    }
+
+    @Override
+    public Book findBookByIsbn(String isbn) {
+        String key = Isbn.canonicalize(isbn);
+        if (key == null) {
+            throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+        }
+        Integer id = isbnIndex.findBookId(key);
+        if (id != null) {
+            Book cachedBook = bookCache.get(id, Book.class);
+            if (cachedBook != null && key.equals(cachedBook.getIsbnKey())) {
+                return cachedBook;
+            }
+        }
+        return bookRepository.findByIsbnKey(key)
+                .orElseThrow(() -> new NotFoundException("No result found for book with ISBN: " + isbn));
+    }
+
+    @Override
+    public int findBookVersion(int id) {
+        Book cachedBook = bookCache.get(id, Book.class);
+        if (cachedBook != null) {
+            return cachedBook.getVersion();
+        }
+        return bookRepository.findVersionById(id)
+                .orElseThrow(() -> NotFoundException.book(id));
+    }
+
+    @Override
+    public int findAuthorVersion(int id) {
+        Author cachedAuthor = authorCache.get(id, Author.class);
+        if (cachedAuthor != null) {
+            return cachedAuthor.getVersion();
         }
-        return author;
+        return authorRepository.findVersionById(id)
+                .orElseThrow(() -> NotFoundException.author(id));
     }
 
     @Override
+    @Transactional
     public void deleteBook(Book book) {
+        evictBook(book.getId());
         bookRepository.delete(book);
+        afterCommit(() -> {
+            searchIndex.removeBook(book.getId());
+            isbnIndex.removeBook(book.getId());
+            coAuthorGraph.removeBook(book.getId());
+            changeFeed.publish(ChangeEvent.Entity.BOOK, book.getId(), ChangeEvent.Op.DELETED, null);
+        });
     }
 
+    /**
+     * Unlinks the author from all books and deletes it with three set-based statements; the
+     * versions of the affected books are incremented as their author lists change. The feed
+     * reports these books as updated without a version, which is not read back.
+     */
     @Override
     @Transactional
-    public void deleteAuthor(Author author) {
-        Author fullAuthor = authorRepository.findAuthorWithBooksById(author.getId())
-                .orElseThrow(() -> new EntityNotFoundException("No result found for author with ID: " + author.getId()));
-        Set<Book> authorBooks = fullAuthor.getBooks();
-        if (!authorBooks.isEmpty()) {
-            authorBooks.forEach(book -> book.getAuthors().remove(fullAuthor));
-            bookRepository.saveAll(authorBooks);
+    public void deleteAuthor(int id) {
+        List<Integer> bookIds = bookRepository.findIdsByAuthorsId(id);
+        evictAuthorWithBooks(id, bookIds);
+        bookRepository.incrementVersionsByAuthorId(id);
+        bookRepository.deleteAuthorLinks(id);
+        if (authorRepository.deleteAndCountById(id) == 0) {
+            throw NotFoundException.author(id);
         }
-        authorRepository.delete(fullAuthor);
+        afterCommit(() -> {
+            searchIndex.removeAuthor(id);
+            coAuthorGraph.removeAuthor(id);
+            bookIds.forEach(bookId -> changeFeed.publish(ChangeEvent.Entity.BOOK, bookId, ChangeEvent.Op.UPDATED, null));
+            changeFeed.publish(ChangeEvent.Entity.AUTHOR, id, ChangeEvent.Op.DELETED, null);
+        });
     }
 
+    /**
+     * Books the graph does not know have no authors or do not exist, which one key lookup
+     * decides before the authors are queried. A linked book without authors has been deleted
+     * since the graph was last rebuilt, or on another instance.
+     */
     @Override
-    public List<Author> findAuthorsByBookId(int id) {
-        Optional<Book> result = bookRepository.findById(id);
-        if (result.isEmpty()) {
-            throw new EntityNotFoundException("No result found for book with ID: " + id);
+    @Transactional(readOnly = true)
+    public List<AuthorSummary> findAuthorsByBookId(int id) {
+        boolean linked = coAuthorGraph.containsBook(id);
+        if (!linked && !bookRepository.existsById(id)) {
+            throw NotFoundException.book(id);
+        }
+        List<AuthorSummary> authors = authorRepository.findSummariesByBookId(id);
+        if (linked && authors.isEmpty() && !bookRepository.existsById(id)) {
+            throw NotFoundException.book(id);
         }
-        return authorRepository.findByBooksId(id);
+        return authors;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> findBooksByAuthorId(int id) {
+        boolean linked = coAuthorGraph.containsAuthor(id);
+        if (!linked && !authorRepository.existsById(id)) {
+            throw NotFoundException.author(id);
+        }
+        List<BookSummary> books = bookRepository.findSummariesByAuthorId(id);
+        if (linked && books.isEmpty() && !authorRepository.existsById(id)) {
+            throw NotFoundException.author(id);
+        }
+        return withAuthorIds(books);
+    }
+
+    @Override
+    public List<CoAuthor> findCoAuthors(int id) {
+        checkAuthorExists(id);
+        return coAuthorGraph.findCoAuthors(id);
     }
 
     @Override
-    public List<Book> findBooksByAuthorId(int id) {
-        Optional<Author> result = authorRepository.findById(id);
-        if (result.isEmpty()) {
-            throw new EntityNotFoundException("No result found for author with ID: " + id);
+    public List<AuthorDistance> findAuthorsWithinHops(int id, int maxHops, int limit) {
+        checkPageLimit(limit);
+        if (maxHops < 1 || maxHops > maxGraphHops) {
+            throw new IllegalArgumentException("Hops must be between 1 and " + maxGraphHops);
         }
-        return bookRepository.findByAuthorsId(id);
+        checkAuthorExists(id);
+        return coAuthorGraph.findAuthorsWithinHops(id, maxHops, limit);
+    }
+
+    @Override
+    public int[] findSharedBookIds(int id, int otherId) {
+        checkAuthorExists(id);
+        checkAuthorExists(otherId);
+        return coAuthorGraph.findSharedBookIds(id, otherId);
     }
 
     @Override
     @Transactional
-    public void changeBook(Book existingBook, Book editedBook) {
-        if (!editedBook.getAuthors().isEmpty()) {
-            Set<Integer> authorIds = editedBook.getAuthors().stream()
-                    .map(Author::getId)
-                    .collect(Collectors.toSet());
-            List<Author> fetchedAuthors = authorRepository.findAllById(authorIds);
-            if (fetchedAuthors.size() != authorIds.size()) {
-                throw new EntityNotFoundException("Some authors were not found");
+    public Book replaceBook(Book book, Collection<Integer> expectedVersions) {
+        checkValid(book);
+        Set<Integer> authorIds = book.getAuthors().stream()
+                .map(Author::getId)
+                .collect(Collectors.toSet());
+        return updateBook(book.getId(), book, authorIds, expectedVersions);
+    }
+
+    @Override
+    @Transactional
+    public Book changeBook(int id, Book editedBook, Collection<Integer> expectedVersions) {
+        checkValidProperties(editedBook, "title", "isbn");
+        Set<Integer> authorIds = editedBook.getAuthors().isEmpty() ? null : editedBook.getAuthors().stream()
+                .map(Author::getId)
+                .collect(Collectors.toSet());
+        return updateBook(id, editedBook, authorIds, expectedVersions);
+    }
+
+    @Override
+    @Transactional
+    public Author replaceAuthor(Author author, Collection<Integer> expectedVersions) {
+        checkValid(author);
+        return updateAuthor(author.getId(), author, expectedVersions);
+    }
+
+    @Override
+    @Transactional
+    public Author changeAuthor(int id, Author editedAuthor, Collection<Integer> expectedVersions) {
+        checkValidProperties(editedAuthor, "firstName", "lastName");
+        return updateAuthor(id, editedAuthor, expectedVersions);
+    }
+
+    /**
+     * Updates the changed columns in one statement, whose row count decides between success
+     * and 404/412, and diffs the author links only if {@code authorIds} is given. The book is
+     * read back once, after all writes, for the response and the indexes.
+     */
+    private Book updateBook(int id, Book changes, Set<Integer> authorIds, Collection<Integer> expectedVersions) {
+        evictBook(id);
+        if (bookRepository.updateColumns(id, expectedVersions, changes.getTitle(), changes.getIsbn()) == 0) {
+            throw updateFailure("book", id, bookRepository.findVersionById(id));
+        }
+        if (authorIds != null) {
+            bookRepository.replaceAuthorLinks(id, authorIds);
+        }
+        Book updatedBook = bookRepository.findById(id)
+                .orElseThrow(() -> NotFoundException.book(id));
+        if (authorIds != null && updatedBook.getAuthors().size() != authorIds.size()) {
+            throw new NotFoundException("Some authors were not found");
+        }
+        afterCommit(() -> {
+            indexBook(updatedBook);
+            if (authorIds != null) {
+                coAuthorGraph.index(List.of(updatedBook));
             }
-            existingBook.setAuthors(new LinkedHashSet<>(fetchedAuthors));
+            changeFeed.publish(ChangeEvent.Entity.BOOK, id, ChangeEvent.Op.UPDATED, updatedBook.getVersion());
+        });
+        return updatedBook;
+    }
+
+    private Author updateAuthor(int id, Author changes, Collection<Integer> expectedVersions) {
+        evictAuthorWithBooks(id, bookRepository.findIdsByAuthorsId(id));
+        if (authorRepository.updateColumns(id, expectedVersions, changes.getFirstName(), changes.getLastName()) == 0) {
+            throw updateFailure("author", id, authorRepository.findVersionById(id));
+        }
+        Author updatedAuthor = authorRepository.findById(id)
+                .orElseThrow(() -> NotFoundException.author(id));
+        afterCommit(() -> {
+            searchIndex.index(updatedAuthor);
+            changeFeed.publish(ChangeEvent.Entity.AUTHOR, id, ChangeEvent.Op.UPDATED, updatedAuthor.getVersion());
+        });
+        return updatedAuthor;
+    }
+
+    private static RuntimeException updateFailure(String entityName, int id, Optional<Integer> currentVersion) {
+        if (currentVersion.isEmpty()) {
+            return new NotFoundException("No result found for " + entityName + " with ID: " + id);
+        }
+        return new OptimisticLockingFailureException("Version of " + entityName + " with ID: " + id
+                + " is \"" + currentVersion.get() + "\", which does not match If-Match");
+    }
+
+    /**
+     * Returns the cached entity, or publishes a pending future for the id and loads the entity
+     * on the calling thread, so concurrent misses wait for one fetch and the database is queried
+     * outside the lock of the cache's map, where a virtual thread would be pinned. The cache
+     * drops a future that completes without a value or fails, so a missing entity is not cached,
+     * nor is one whose entry a concurrent write has evicted while it was loading.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T findCached(AsyncCache<Object, Object> cache, int id, Function<Integer, Optional<T>> loader,
+                                    IntFunction<NotFoundException> notFound) {
+        CompletableFuture<Object> pending = cache.getIfPresent(id); // records the hit or miss, unlike the map view
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        if (pending == null) {
+            pending = cache.asMap().putIfAbsent(id, loading);
         }
-        if (editedBook.getIsbn() != null) {
-            existingBook.setIsbn(editedBook.getIsbn());
+        Object entity;
+        if (pending == null) {
+            try {
+                entity = loader.apply(id).orElse(null);
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+            loading.complete(entity);
+        } else {
+            try {
+                entity = pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
         }
-        if (editedBook.getTitle() != null) {
-            existingBook.setTitle(editedBook.getTitle());
+        if (entity == null) {
+            throw notFound.apply(id);
         }
-        bookRepository.save(existingBook);
+        return (T) entity;
     }
 
-    @Override
-    public void changeAuthor(Author existingAuthor, Author editedAuthor) {
-        if (editedAuthor.getFirstName() != null) {
-            existingAuthor.setFirstName(editedAuthor.getFirstName());
+    /**
+     * Returns the Caffeine cache behind the transaction-aware decorator, which runs in async mode.
+     */
+    @SuppressWarnings("unchecked")
+    private static AsyncCache<Object, Object> asyncCacheOf(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        return (AsyncCache<Object, Object>) (AsyncCache<?, ?>) ((CaffeineCache) target).getAsyncCache();
+    }
+
+    /**
+     * Takes what the cache holds and loads the rest with one query. Loaded entities are not
+     * cached: unlike the per-key loading of {@link #findCached}, a put here could
+     * store a state that a concurrent write has already evicted.
+     */
+    private <T> BatchLookupResult<T> findByIds(List<Integer> ids, Cache cache, Class<T> type,
+                                               Function<List<Integer>, List<T>> loader, ToIntFunction<T> idExtractor) {
+        if (ids.isEmpty() || ids.size() > maxPageLimit) {
+            throw new IllegalArgumentException("Number of IDs must be between 1 and " + maxPageLimit);
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        Map<Integer, T> entities = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (int id : distinctIds) {
+            T cached = cache.get(id, type);
+            if (cached != null) {
+                entities.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            loader.apply(misses).forEach(entity -> entities.put(idExtractor.applyAsInt(entity), entity));
+        }
+        List<T> found = new ArrayList<>(entities.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (int id : distinctIds) {
+            T entity = entities.get(id);
+            if (entity != null) {
+                found.add(entity);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchLookupResult<>(found, missingIds);
+    }
+
+    /**
+     * Adds the author ids to summaries ordered by book id, merging them with the links,
+     * which come in the same order.
+     */
+    private List<BookSummary> withAuthorIds(List<BookSummary> books) {
+        if (books.isEmpty()) {
+            return books;
         }
-        if (editedAuthor.getLastName() != null) {
-            existingAuthor.setLastName(editedAuthor.getLastName());
+        List<BookAuthorLink> links = bookRepository.findAuthorLinks(books.stream().map(BookSummary::id).toList());
+        List<BookSummary> result = new ArrayList<>(books.size());
+        int next = 0;
+        for (BookSummary book : books) {
+            int first = next;
+            while (next < links.size() && links.get(next).getBookId() == book.id()) {
+                next++;
+            }
+            int[] authorIds = new int[next - first];
+            for (int i = first; i < next; i++) {
+                authorIds[i - first] = links.get(i).getAuthorId();
+            }
+            result.add(book.withAuthorIds(authorIds));
         }
-        authorRepository.save(existingAuthor);
+        return result;
     }
 
-}
+    /**
+     * Evicts immediately, so that no reader picks up an instance that is being modified,
+     * and again after commit, dropping anything cached from the pre-commit state meanwhile.
+     */
+    private void evictBook(int id) {
+        bookCache.evictIfPresent(id);
+        bookCache.evict(id);
+    }
+
+    private void evictAuthorWithBooks(int authorId, Collection<Integer> bookIds) {
+        authorCache.evictIfPresent(authorId);
+        authorCache.evict(authorId);
+        bookIds.forEach(this::evictBook);
+    }
+
+    private void indexBook(Book book) {
+        searchIndex.index(book);
+        isbnIndex.index(book);
+    }
+
+    /**
+     * Defers updates of the in-memory indexes and the change feed until the surrounding
+     * transaction commits, so a rolled-back write never becomes visible there.
+     * <p>
+     * Callbacks of concurrent transactions run in whatever order their threads reach them, not
+     * in commit order, so an older version of a row may arrive after a newer one. The indexes
+     * therefore keep the version of every entry and ignore updates older than it, and keep a
+     * tombstone for removed ids until they are next rebuilt, as ids are never reused.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Authors linked to a book are known from the graph; only others need a lookup.
+     */
+    private void checkAuthorExists(int id) {
+        if (!coAuthorGraph.containsAuthor(id) && !authorRepository.existsById(id)) {
+            throw NotFoundException.author(id);
+        }
+    }
+
+    /**
+     * Returns the fields of a sparse fieldset, which may only name properties of the representation.
+     */
+    private static Set<String> checkFields(Set<String> fields, List<String> available) {
+        Set<String> selected = new HashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of " + available);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private static List<String> columns(Set<String> fields, String... columns) {
+        return Arrays.stream(columns).filter(fields::contains).toList();
+    }
+
+    private void checkPageLimit(int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size < 1 || size > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + maxBatchSize);
+        }
+    }
+
+    private <T> void checkValid(T entity) {
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
 
+    /**
+     * Validates only the given properties that are set, as a partial update leaves the others unchanged.
+     */
+    private <T> void checkValidProperties(T entity, String... properties) {
+        BeanWrapper values = new BeanWrapperImpl(entity);
+        Set<ConstraintViolation<T>> violations = new HashSet<>();
+        for (String property : properties) {
+            if (values.getPropertyValue(property) != null) {
+                violations.addAll(validator.validateProperty(entity, property));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static <T> String describeViolations(Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        List<String> errors = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .toList();
+        return "Validation failed for the following fields: " + errors;
+    }
+
+}
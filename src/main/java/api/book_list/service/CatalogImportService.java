@@ -0,0 +1,11 @@
+package api.book_list.service;
+
+import api.book_list.dto.ImportSummary;
+
+import java.io.Reader;
+
+public interface CatalogImportService {
+
+    ImportSummary importBooks(Reader input, int batchSize, long resumeFrom);
+
+}
@@ -0,0 +1,243 @@
+package api.book_list.service;
+
+import api.book_list.dto.AuthorSummary;
+import api.book_list.dto.BatchItemResult;
+import api.book_list.dto.ImportSummary;
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import api.book_list.repository.AuthorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Imports books in batches through {@link BookService#saveAuthors} and {@link BookService#saveBooks},
+ * so every batch is validated, deduplicated against the ISBN index, inserted with JDBC batching
+ * and committed on its own. Memory is bounded by the batch size and the map of author names,
+ * never by the size of the file.
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final String AUTHOR_SEPARATOR = ";";
+
+    private final BookService bookService;
+    private final AuthorRepository authorRepository;
+    private final int maxBatchSize;
+    private final int maxReportedErrors;
+
+    public CatalogImportServiceImpl(BookService bookService, AuthorRepository authorRepository,
+                                    @Value("${book-list.batch.max-size:1000}") int maxBatchSize,
+                                    @Value("${book-list.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.bookService = bookService;
+        this.authorRepository = authorRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ImportSummary importBooks(Reader input, int batchSize, long resumeFrom) {
+        if (batchSize < 1 || batchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + maxBatchSize);
+        }
+        if (resumeFrom < 1) {
+            throw new IllegalArgumentException("Resume row must be at least 1");
+        }
+        ImportRun run = new ImportRun();
+        CsvReader csv = new CsvReader(input);
+        Columns columns;
+        try {
+            columns = Columns.of(csv.next());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read CSV header: " + e.getMessage());
+        }
+        for (AuthorSummary author : authorRepository.findAllSummaries()) {
+            run.authorIds.put(nameKey(author.firstName(), author.lastName()), author.id());
+        }
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long row = 0;
+        long batchStart = resumeFrom;
+        try {
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = csv.next();
+                } catch (IllegalArgumentException e) {
+                    run.reject(row + 1, e.getMessage());
+                    break;
+                }
+                if (fields == null) {
+                    break;
+                }
+                row++;
+                run.rowsRead++;
+                if (row < resumeFrom) {
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    batchStart = row;
+                }
+                ImportRow importRow = parse(row, fields, columns, run);
+                if (importRow != null) {
+                    batch.add(importRow);
+                }
+                if (batch.size() == batchSize) {
+                    commit(batch, run);
+                    batch.clear();
+                }
+            }
+            commit(batch, run);
+        } catch (IOException | RuntimeException e) {
+            return run.summary(batchStart, e.getMessage());
+        }
+        return run.summary(null, null);
+    }
+
+    private ImportRow parse(long row, List<String> fields, Columns columns, ImportRun run) {
+        if (fields.size() != columns.count) {
+            run.reject(row, "Expected " + columns.count + " fields but found " + fields.size());
+            return null;
+        }
+        List<String[]> authorNames = new ArrayList<>();
+        if (columns.authors >= 0) {
+            for (String name : fields.get(columns.authors).split(AUTHOR_SEPARATOR)) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                int lastSpace = trimmed.lastIndexOf(' ');
+                if (lastSpace < 0) {
+                    run.reject(row, "Author name '" + trimmed + "' must consist of a first and a last name");
+                    return null;
+                }
+                authorNames.add(new String[]{trimmed.substring(0, lastSpace).trim(), trimmed.substring(lastSpace + 1)});
+            }
+        }
+        return new ImportRow(row, fields.get(columns.title).trim(), fields.get(columns.isbn).trim(), authorNames);
+    }
+
+    /**
+     * Creates the authors the batch refers to that are not known yet, then the books. A row
+     * whose author is rejected is rejected with it.
+     */
+    private void commit(List<ImportRow> batch, ImportRun run) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Author> newAuthors = new LinkedHashMap<>();
+        for (ImportRow importRow : batch) {
+            for (String[] name : importRow.authorNames()) {
+                String key = nameKey(name[0], name[1]);
+                if (!run.authorIds.containsKey(key)) {
+                    newAuthors.computeIfAbsent(key, k -> new Author(name[0], name[1]));
+                }
+            }
+        }
+        Map<String, String> rejectedAuthors = new HashMap<>();
+        if (!newAuthors.isEmpty()) {
+            List<String> keys = new ArrayList<>(newAuthors.keySet());
+            List<BatchItemResult> results = bookService.saveAuthors(new ArrayList<>(newAuthors.values()));
+            for (BatchItemResult result : results) {
+                if (result.id() != null) {
+                    run.authorIds.put(keys.get(result.index()), result.id());
+                    run.authorsCreated++;
+                } else {
+                    rejectedAuthors.put(keys.get(result.index()), result.error());
+                }
+            }
+        }
+
+        List<ImportRow> bookRows = new ArrayList<>(batch.size());
+        List<Book> books = new ArrayList<>(batch.size());
+        for (ImportRow importRow : batch) {
+            Set<Author> authors = new LinkedHashSet<>();
+            String authorError = null;
+            for (String[] name : importRow.authorNames()) {
+                String key = nameKey(name[0], name[1]);
+                Integer authorId = run.authorIds.get(key);
+                if (authorId == null) {
+                    authorError = "Author '" + name[0] + " " + name[1] + "': " + rejectedAuthors.get(key);
+                    break;
+                }
+                Author author = new Author();
+                author.setId(authorId);
+                authors.add(author);
+            }
+            if (authorError != null) {
+                run.reject(importRow.row(), authorError);
+                continue;
+            }
+            bookRows.add(importRow);
+            books.add(new Book(importRow.title(), importRow.isbn(), authors));
+        }
+        if (books.isEmpty()) {
+            return;
+        }
+        for (BatchItemResult result : bookService.saveBooks(books)) {
+            if (result.id() != null) {
+                run.booksImported++;
+            } else if (result.status() == HttpStatus.CONFLICT.value()) {
+                run.duplicates++;
+            } else {
+                run.reject(bookRows.get(result.index()).row(), result.error());
+            }
+        }
+    }
+
+    private static String nameKey(String firstName, String lastName) {
+        return firstName + '\0' + lastName;
+    }
+
+    private record ImportRow(long row, String title, String isbn, List<String[]> authorNames) {}
+
+    /**
+     * Positions of the columns named in the header; {@code authors} is optional.
+     */
+    private record Columns(int count, int title, int isbn, int authors) {
+
+        static Columns of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+            List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            if (!names.contains("title") || !names.contains("isbn")) {
+                throw new IllegalArgumentException("CSV header must contain the columns title and isbn, found " + header);
+            }
+            return new Columns(names.size(), names.indexOf("title"), names.indexOf("isbn"), names.indexOf("authors"));
+        }
+
+    }
+
+    private final class ImportRun {
+
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Integer> authorIds = new HashMap<>();
+        private final List<ImportSummary.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long booksImported;
+        private long authorsCreated;
+        private long duplicates;
+        private long rejected;
+
+        private void reject(long row, String error) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportSummary.RowError(row, error));
+            }
+        }
+
+        private ImportSummary summary(Long resumeFrom, String error) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long rowsPerSecond = elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000L / elapsedNanos;
+            return new ImportSummary(resumeFrom == null, rowsRead, booksImported, authorsCreated, duplicates, rejected,
+                    elapsedNanos / 1_000_000, rowsPerSecond, resumeFrom, error, errors);
+        }
+
+    }
+
+}
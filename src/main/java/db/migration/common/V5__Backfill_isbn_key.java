@@ -0,0 +1,64 @@
+package db.migration.common;
+
+import api.book_list.entity.Isbn;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Fills {@code Book.IsbnKey} of existing rows with {@link Isbn#canonicalize}, the form the
+ * application writes, in pages of ids. Before the key is made unique, duplicates of a key
+ * keep it only on the book with the lowest id; the others are logged and left without one.
+ */
+@Slf4j
+public class V5__Backfill_isbn_key extends BaseJavaMigration {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement("SELECT BookID, ISBN FROM Book WHERE BookID > ? ORDER BY BookID");
+             PreparedStatement update = connection.prepareStatement("UPDATE Book SET IsbnKey = ? WHERE BookID = ?")) {
+            select.setMaxRows(PAGE_SIZE);
+            int lastId = Integer.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                select.setInt(1, lastId);
+                try (ResultSet page = select.executeQuery()) {
+                    while (page.next()) {
+                        lastId = page.getInt(1);
+                        rows++;
+                        String key = Isbn.canonicalize(page.getString(2));
+                        if (key != null) {
+                            update.setString(1, key);
+                            update.setInt(2, lastId);
+                            update.addBatch();
+                        }
+                    }
+                }
+                update.executeBatch();
+            } while (rows == PAGE_SIZE);
+        }
+
+        String duplicates = "FROM Book WHERE IsbnKey IS NOT NULL"
+                + " AND EXISTS (SELECT 1 FROM Book b WHERE b.IsbnKey = Book.IsbnKey AND b.BookID < Book.BookID)";
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet duplicate = statement.executeQuery("SELECT BookID, ISBN " + duplicates)) {
+                while (duplicate.next()) {
+                    log.warn("Book {} has the same ISBN as a book with a lower ID and is left without an ISBN key: {}",
+                            duplicate.getInt(1), duplicate.getString(2));
+                }
+            }
+            statement.executeUpdate("UPDATE Book SET IsbnKey = NULL WHERE BookID IN (SELECT BookID " + duplicates + ")");
+        }
+    }
+
+}
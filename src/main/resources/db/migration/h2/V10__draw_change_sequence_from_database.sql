@@ -0,0 +1,7 @@
+-- See the SQL Server migration.
+DROP TABLE ChangeFeedLease;
+
+EXECUTE IMMEDIATE 'CREATE SEQUENCE ChangeLog_SEQ START WITH '
+    || ((SELECT COALESCE(MAX(Seq), 0) FROM ChangeLog) + 1) || ' INCREMENT BY 1';
+
+ALTER TABLE ChangeLog ALTER COLUMN Seq SET DEFAULT NEXT VALUE FOR ChangeLog_SEQ;
@@ -0,0 +1,23 @@
+-- H2 counterpart of the SQL Server schema, used by the tests and benchmarks.
+
+CREATE TABLE Author (
+    AuthorID INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    FirstName VARCHAR(25) NOT NULL,
+    LastName VARCHAR(50) NOT NULL,
+    PRIMARY KEY (AuthorID)
+);
+
+CREATE TABLE Book (
+    BookID INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    Title VARCHAR(100) NOT NULL,
+    ISBN VARCHAR(17) NOT NULL,
+    PRIMARY KEY (BookID)
+);
+
+CREATE TABLE Book_Author (
+    BookID INTEGER NOT NULL,
+    AuthorID INTEGER NOT NULL,
+    CONSTRAINT PK_BookID_AuthorID PRIMARY KEY (BookID, AuthorID),
+    CONSTRAINT FK_Author_AuthorID FOREIGN KEY (AuthorID) REFERENCES Author (AuthorID),
+    CONSTRAINT FK_Book_BookID FOREIGN KEY (BookID) REFERENCES Book (BookID)
+);
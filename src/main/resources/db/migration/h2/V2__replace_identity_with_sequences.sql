@@ -0,0 +1,11 @@
+-- See the SQL Server migration; H2 can drop the identity in place.
+ALTER TABLE Author ALTER COLUMN AuthorID DROP IDENTITY;
+ALTER TABLE Book ALTER COLUMN BookID DROP IDENTITY;
+
+EXECUTE IMMEDIATE 'CREATE SEQUENCE Author_SEQ START WITH '
+    || ((SELECT COALESCE(MAX(AuthorID), 0) FROM Author) / 50 + 2) * 50 || ' INCREMENT BY 50';
+EXECUTE IMMEDIATE 'CREATE SEQUENCE Book_SEQ START WITH '
+    || ((SELECT COALESCE(MAX(BookID), 0) FROM Book) / 50 + 2) * 50 || ' INCREMENT BY 50';
+
+ALTER TABLE Author ALTER COLUMN AuthorID SET DEFAULT NEXT VALUE FOR Author_SEQ;
+ALTER TABLE Book ALTER COLUMN BookID SET DEFAULT NEXT VALUE FOR Book_SEQ;
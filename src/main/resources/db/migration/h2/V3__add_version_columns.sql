@@ -0,0 +1,2 @@
+ALTER TABLE Author ADD Version INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE Book ADD Version INTEGER DEFAULT 0 NOT NULL;
@@ -0,0 +1 @@
+ALTER TABLE Book ADD IsbnKey VARCHAR(13);
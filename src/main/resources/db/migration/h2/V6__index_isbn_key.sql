@@ -0,0 +1,2 @@
+-- H2 unique indexes allow any number of NULLs, like the filtered index on SQL Server
+CREATE UNIQUE INDEX UX_Book_IsbnKey ON Book (IsbnKey);
@@ -0,0 +1,9 @@
+CREATE TABLE ChangeLog (
+    Seq BIGINT NOT NULL,
+    Entity VARCHAR(10) NOT NULL,
+    EntityID INTEGER NOT NULL,
+    Op VARCHAR(10) NOT NULL,
+    Version INTEGER,
+    ChangedAt TIMESTAMP(7) NOT NULL,
+    PRIMARY KEY (Seq)
+);
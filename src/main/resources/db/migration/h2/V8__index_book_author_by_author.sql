@@ -0,0 +1,3 @@
+-- See the SQL Server migration. H2 already has an index for the AuthorID foreign key, which it
+-- creates for every foreign key; QueryPlanTest does not count those, as SQL Server has none.
+CREATE UNIQUE INDEX IX_Book_Author_AuthorID_BookID ON Book_Author (AuthorID, BookID);
@@ -0,0 +1,7 @@
+CREATE TABLE ChangeFeedLease (
+    LeaseID INTEGER NOT NULL,
+    Owner VARCHAR(64),
+    ExpiresAt TIMESTAMP(7) NOT NULL,
+    PRIMARY KEY (LeaseID)
+);
+INSERT INTO ChangeFeedLease (LeaseID, Owner, ExpiresAt) VALUES (1, NULL, TIMESTAMP '2000-01-01 00:00:00');
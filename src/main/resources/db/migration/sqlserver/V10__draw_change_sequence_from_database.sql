@@ -0,0 +1,12 @@
+-- Change feed sequence numbers are drawn on insert, so that every instance can journal its
+-- changes; the lease that let one instance issue them in memory is no longer needed.
+DROP TABLE ChangeFeedLease;
+GO
+
+DECLARE @sql nvarchar(max);
+SET @sql = N'CREATE SEQUENCE ChangeLog_SEQ AS bigint START WITH '
+    + CAST((SELECT ISNULL(MAX(Seq), 0) + 1 FROM ChangeLog) AS nvarchar(20)) + N' INCREMENT BY 1';
+EXEC sp_executesql @sql;
+GO
+
+ALTER TABLE ChangeLog ADD CONSTRAINT DF_ChangeLog_Seq DEFAULT (NEXT VALUE FOR ChangeLog_SEQ) FOR Seq;
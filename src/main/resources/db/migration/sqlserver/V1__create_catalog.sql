@@ -0,0 +1,24 @@
+-- Schema as created by BLAPI.sql before migrations were introduced; existing databases are
+-- baselined at this version, and the following migrations bring them up to date.
+
+CREATE TABLE Author (
+    AuthorID int IDENTITY(1,1) NOT NULL,
+    FirstName nvarchar(25) NOT NULL,
+    LastName nvarchar(50) NOT NULL,
+    PRIMARY KEY CLUSTERED (AuthorID)
+);
+
+CREATE TABLE Book (
+    BookID int IDENTITY(1,1) NOT NULL,
+    Title nvarchar(100) NOT NULL,
+    ISBN nvarchar(17) NOT NULL,
+    PRIMARY KEY CLUSTERED (BookID)
+);
+
+CREATE TABLE Book_Author (
+    BookID int NOT NULL,
+    AuthorID int NOT NULL,
+    CONSTRAINT PK_BookID_AuthorID PRIMARY KEY CLUSTERED (BookID, AuthorID),
+    CONSTRAINT FK_Author_AuthorID FOREIGN KEY (AuthorID) REFERENCES Author (AuthorID),
+    CONSTRAINT FK_Book_BookID FOREIGN KEY (BookID) REFERENCES Book (BookID)
+);
@@ -0,0 +1,44 @@
+-- Hibernate allocates ids from sequences in blocks of 50 (allocationSize), so that inserts can be
+-- batched. IDENTITY cannot be removed from a column, so both tables are copied to new ones.
+ALTER TABLE Book_Author DROP CONSTRAINT FK_Author_AuthorID, FK_Book_BookID;
+GO
+
+CREATE TABLE Author_Copy (
+    AuthorID int NOT NULL,
+    FirstName nvarchar(25) NOT NULL,
+    LastName nvarchar(50) NOT NULL
+);
+INSERT INTO Author_Copy (AuthorID, FirstName, LastName) SELECT AuthorID, FirstName, LastName FROM Author;
+DROP TABLE Author;
+EXEC sp_rename 'Author_Copy', 'Author';
+GO
+ALTER TABLE Author ADD CONSTRAINT PK_Author PRIMARY KEY CLUSTERED (AuthorID);
+GO
+
+CREATE TABLE Book_Copy (
+    BookID int NOT NULL,
+    Title nvarchar(100) NOT NULL,
+    ISBN nvarchar(17) NOT NULL
+);
+INSERT INTO Book_Copy (BookID, Title, ISBN) SELECT BookID, Title, ISBN FROM Book;
+DROP TABLE Book;
+EXEC sp_rename 'Book_Copy', 'Book';
+GO
+ALTER TABLE Book ADD CONSTRAINT PK_Book PRIMARY KEY CLUSTERED (BookID);
+GO
+
+-- Each block of ids ends at the value drawn from the sequence, so the sequences start at the
+-- second multiple of 50 above the highest id in use; 100 for an empty table.
+DECLARE @sql nvarchar(max);
+SET @sql = N'CREATE SEQUENCE Author_SEQ AS int START WITH '
+    + CAST((SELECT (ISNULL(MAX(AuthorID), 0) / 50 + 2) * 50 FROM Author) AS nvarchar(11)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+SET @sql = N'CREATE SEQUENCE Book_SEQ AS int START WITH '
+    + CAST((SELECT (ISNULL(MAX(BookID), 0) / 50 + 2) * 50 FROM Book) AS nvarchar(11)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+GO
+
+ALTER TABLE Author ADD CONSTRAINT DF_Author_AuthorID DEFAULT (NEXT VALUE FOR Author_SEQ) FOR AuthorID;
+ALTER TABLE Book ADD CONSTRAINT DF_Book_BookID DEFAULT (NEXT VALUE FOR Book_SEQ) FOR BookID;
+ALTER TABLE Book_Author WITH CHECK ADD CONSTRAINT FK_Author_AuthorID FOREIGN KEY (AuthorID) REFERENCES Author (AuthorID);
+ALTER TABLE Book_Author WITH CHECK ADD CONSTRAINT FK_Book_BookID FOREIGN KEY (BookID) REFERENCES Book (BookID);
@@ -0,0 +1,3 @@
+-- Optimistic locking and ETags; existing rows start at version 0
+ALTER TABLE Author ADD Version int NOT NULL CONSTRAINT DF_Author_Version DEFAULT (0);
+ALTER TABLE Book ADD Version int NOT NULL CONSTRAINT DF_Book_Version DEFAULT (0);
@@ -0,0 +1,3 @@
+-- IsbnKey is the ISBN-13 form of ISBN, without hyphens; NULL when ISBN is not a valid ISBN-10 or
+-- ISBN-13. V5 fills it for existing rows, V6 makes it unique.
+ALTER TABLE Book ADD IsbnKey varchar(13) NULL;
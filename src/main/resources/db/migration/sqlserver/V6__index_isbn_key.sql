@@ -0,0 +1 @@
+CREATE UNIQUE NONCLUSTERED INDEX UX_Book_IsbnKey ON Book (IsbnKey) WHERE IsbnKey IS NOT NULL;
@@ -0,0 +1,10 @@
+-- Journal of the change feed; rows older than the in-memory window are purged by the application
+CREATE TABLE ChangeLog (
+    Seq bigint NOT NULL,
+    Entity varchar(10) NOT NULL,
+    EntityID int NOT NULL,
+    Op varchar(10) NOT NULL,
+    Version int NULL,
+    ChangedAt datetime2(7) NOT NULL,
+    PRIMARY KEY CLUSTERED (Seq)
+);
@@ -0,0 +1,4 @@
+-- Book_Author is clustered by BookID, so everything that looks up the links of an author
+-- (the books of an author, deleting an author and the foreign key check that comes with it)
+-- scanned the whole table.
+CREATE UNIQUE NONCLUSTERED INDEX IX_Book_Author_AuthorID_BookID ON Book_Author (AuthorID, BookID);
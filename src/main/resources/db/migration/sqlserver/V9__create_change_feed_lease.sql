@@ -0,0 +1,8 @@
+-- Held by the one instance that issues change feed sequence numbers and renewed while it runs
+CREATE TABLE ChangeFeedLease (
+    LeaseID int NOT NULL,
+    Owner varchar(64) NULL,
+    ExpiresAt datetime2(7) NOT NULL,
+    PRIMARY KEY CLUSTERED (LeaseID)
+);
+INSERT INTO ChangeFeedLease (LeaseID, Owner, ExpiresAt) VALUES (1, NULL, '2000-01-01T00:00:00');
@@ -0,0 +1,70 @@
+package api.book_list;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the time from launching the application with the production startup profile to its
+ * first successful request, which with lazy initialization includes creating the beans that
+ * request needs. Fails when it exceeds {@code -Dstartup.budget-seconds}; the default leaves
+ * about a fifth above the 25 s measured on a single-CPU build machine, so faster machines
+ * should pass their own. Excluded from the default build; run it with
+ * {@code mvn test -P startup-test}.
+ */
+@Slf4j
+@Tag("startup")
+public class StartupTimeTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(Long.getLong("startup.budget-seconds", 30));
+
+    @Test
+    void testTimeToFirstSuccessfulRequest() throws Exception {
+        // Given
+        long start = System.nanoTime();
+
+        // When
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookListApplication.class)
+                .profiles("production", "test")
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.api.book_list.StartupTimeTest=info",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                        // migrations are not run by the production profile, but by the deployment
+                        "--spring.flyway.enabled=true");
+             HttpClient client = HttpClient.newHttpClient()) {
+            long started = System.nanoTime();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            int status = get(client, baseUrl + "/api/books");
+            long firstResponse = System.nanoTime();
+
+            // Then
+            Duration toStarted = Duration.ofNanos(started - start);
+            Duration toFirstResponse = Duration.ofNanos(firstResponse - start);
+            log.info("Started in {} ms, first successful request after {} ms (budget {} ms)",
+                    toStarted.toMillis(), toFirstResponse.toMillis(), BUDGET.toMillis());
+            assertEquals(200, status);
+            assertTrue(toFirstResponse.compareTo(BUDGET) <= 0, "First successful request after " + toFirstResponse.toMillis()
+                    + " ms, started after " + toStarted.toMillis() + " ms, budget " + BUDGET.toMillis() + " ms");
+            assertEquals(200, get(client, baseUrl + "/v3/api-docs"));
+        }
+    }
+
+    private static int get(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+}
@@ -0,0 +1,141 @@
+package api.book_list;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform and virtual request threads under the same closed-loop load of paged
+ * book reads. Excluded from the default build; run it with {@code mvn test -P load-test}
+ * and tune it with {@code -Dload.clients} and {@code -Dload.seconds}.
+ */
+@Tag("load")
+public class ThreadingModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final Duration WARM_UP = Duration.ofSeconds(2);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+    private static final int BOOKS = 1000;
+
+    private record Result(String mode, int completed, int rejected, int failed, double throughput, long[] latenciesNanos) {
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private record ClientStats(List<Long> latencies, int rejected, int failed) {}
+
+    @Test
+    void testPlatformVersusVirtualThreads() throws Exception {
+        // When
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        // Then
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms", "rejected", "failed");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %10.0f %10.2f %10.2f %10d %10d%n", result.mode(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(99), result.rejected(), result.failed());
+        }
+        assertEquals(0, platform.failed());
+        assertEquals(0, virtual.failed());
+        assertTrue(platform.completed() > 0 && virtual.completed() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookListApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1");
+             HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            seed(client, baseUrl);
+
+            long warmUpEnd = System.nanoTime() + WARM_UP.toNanos();
+            long end = warmUpEnd + DURATION.toNanos();
+            List<Future<ClientStats>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> runClient(client, baseUrl, warmUpEnd, end)));
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            int rejected = 0;
+            int failed = 0;
+            for (Future<ClientStats> future : futures) {
+                ClientStats stats = future.get();
+                latencies.addAll(stats.latencies());
+                rejected += stats.rejected();
+                failed += stats.failed();
+            }
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(mode, sorted.length, rejected, failed, sorted.length / (DURATION.toNanos() / 1e9), sorted);
+        }
+    }
+
+    private static ClientStats runClient(HttpClient client, String baseUrl, long warmUpEnd, long end) throws Exception {
+        List<Long> latencies = new ArrayList<>();
+        int rejected = 0;
+        int failed = 0;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            int after = ThreadLocalRandom.current().nextInt(BOOKS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/books?limit=20&after=" + after)).build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long finished = System.nanoTime();
+            if (now < warmUpEnd) {
+                continue;
+            }
+            if (status == 200) {
+                latencies.add(finished - now);
+            } else if (status == 503) {
+                rejected++;
+            } else {
+                failed++;
+            }
+        }
+        return new ClientStats(latencies, rejected, failed);
+    }
+
+    private static void seed(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> author = post(client, baseUrl + "/authors", "{\"firstName\":\"John\", \"lastName\":\"Doe\"}");
+        String authorId = author.body().replaceAll(".*\"id\":(\\d+).*", "$1");
+        String[] books = new String[BOOKS];
+        for (int i = 0; i < BOOKS; i++) {
+            books[i] = String.format("{\"title\":\"Book %d\", \"isbn\":\"978-83-02-%05d-1\", \"authors\":[{\"id\":%s}]}", i, i, authorId);
+        }
+        post(client, baseUrl + "/books/batch", Arrays.toString(books));
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+}
@@ -0,0 +1,97 @@
+package api.book_list.changes;
+
+import api.book_list.dto.ChangeEvent;
+import api.book_list.exception.ResyncRequiredException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeRingBufferTest {
+
+    private final ChangeRingBuffer buffer = new ChangeRingBuffer(4, 0);
+
+    @Test
+    void testReadAfter_ReturnsEventsInOrder() {
+        // Given
+        append(1);
+        append(2);
+        append(3);
+
+        // When
+        List<ChangeEvent> events = buffer.readAfter(1, 10);
+
+        // Then
+        assertEquals(List.of(2L, 3L), events.stream().map(ChangeEvent::seq).toList());
+        assertEquals(List.of(3L), buffer.readAfter(2, 10).stream().map(ChangeEvent::seq).toList());
+        assertTrue(buffer.readAfter(3, 10).isEmpty());
+    }
+
+    @Test
+    void testReadAfter_RespectsLimit() {
+        // Given
+        for (int id = 1; id <= 4; id++) {
+            append(id);
+        }
+
+        // When & Then
+        assertEquals(List.of(1L, 2L), buffer.readAfter(0, 2).stream().map(ChangeEvent::seq).toList());
+    }
+
+    @Test
+    void testReadAfter_OverwrittenEventsRequireResync() {
+        // Given
+        for (int id = 1; id <= 6; id++) {
+            append(id);
+        }
+
+        // When & Then
+        assertThrows(ResyncRequiredException.class, () -> buffer.readAfter(1, 10));
+        assertEquals(List.of(3L, 4L, 5L, 6L), buffer.readAfter(2, 10).stream().map(ChangeEvent::seq).toList());
+    }
+
+    @Test
+    void testReadAfter_CursorAheadOfFeedRequiresResync() {
+        // Given
+        append(1);
+
+        // When & Then
+        assertThrows(ResyncRequiredException.class, () -> buffer.readAfter(5, 10));
+    }
+
+    @Test
+    void testReadAfter_SkipsGaps() {
+        // Given
+        ChangeRingBuffer restored = new ChangeRingBuffer(4, 5);
+        restored.append(event(6, 1));
+        restored.append(event(8, 2));
+
+        // When
+        List<ChangeEvent> events = restored.readAfter(5, 10);
+
+        // Then
+        assertEquals(List.of(6L, 8L), events.stream().map(ChangeEvent::seq).toList());
+        assertEquals(List.of(8L), restored.readAfter(6, 10).stream().map(ChangeEvent::seq).toList());
+    }
+
+    @Test
+    void testAppend_RejectsSequenceNotFollowingLast() {
+        // Given
+        append(1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> buffer.append(event(1, 2)));
+        assertEquals(1, buffer.lastSequence());
+    }
+
+    private void append(int id) {
+        buffer.append(event(buffer.lastSequence() + 1, id));
+    }
+
+    private static ChangeEvent event(long seq, int id) {
+        return new ChangeEvent(seq, ChangeEvent.Entity.BOOK, id, ChangeEvent.Op.UPDATED, 1, Instant.now());
+    }
+
+}
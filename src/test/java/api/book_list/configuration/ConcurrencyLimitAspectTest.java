@@ -0,0 +1,79 @@
+package api.book_list.configuration;
+
+import api.book_list.entity.Book;
+import api.book_list.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitAspectTest {
+
+    private final Semaphore permits = new Semaphore(1);
+    private final PermitRepository repository = proxy(new PermitRepository.Impl(permits));
+
+    interface PermitRepository extends Repository<Book, Integer> {
+
+        int availablePermits();
+
+        record Impl(Semaphore permits) implements PermitRepository {
+            @Override
+            public int availablePermits() {
+                return permits.availablePermits();
+            }
+        }
+
+    }
+
+    @AfterEach
+    void teardown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testLimit_HoldsPermitDuringCall() {
+        // When
+        int availableDuringCall = repository.availablePermits();
+
+        // Then
+        assertEquals(0, availableDuringCall);
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void testLimit_RejectsWhenNoPermitLeft() throws InterruptedException {
+        // Given
+        permits.acquire();
+
+        // When & Then
+        assertThrows(ConcurrencyLimitExceededException.class, repository::availablePermits);
+        permits.release();
+        assertEquals(0, repository.availablePermits());
+    }
+
+    @Test
+    void testLimit_RunsOnPermitOfSurroundingTransaction() throws InterruptedException {
+        // Given
+        permits.acquire();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When
+        int availableDuringCall = repository.availablePermits();
+
+        // Then
+        assertEquals(0, availableDuringCall);
+    }
+
+    private PermitRepository proxy(PermitRepository target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ConcurrencyLimitAspect(permits, Duration.ZERO));
+        return factory.getProxy();
+    }
+
+}
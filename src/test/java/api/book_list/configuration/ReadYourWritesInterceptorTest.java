@@ -0,0 +1,64 @@
+package api.book_list.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testPreHandle_PinsWriterBeforeWriteCompletes() {
+        // Given
+        interceptor.preHandle(request("POST", "writer"), response, null);
+
+        // When
+        boolean writerPinned = isPinnedInOtherRequest(request("GET", "writer"));
+        boolean readerPinned = isPinnedInOtherRequest(request("GET", "reader"));
+
+        // Then
+        assertTrue(writerPinned);
+        assertFalse(readerPinned);
+    }
+
+    @Test
+    void testPreHandle_DoesNotPinWithoutClientId() {
+        // Given
+        MockHttpServletRequest write = request("POST", null);
+        interceptor.preHandle(write, response, null);
+        interceptor.afterCompletion(write, response, null, null);
+
+        // When
+        boolean pinned = isPinnedInOtherRequest(request("GET", null));
+
+        // Then
+        assertFalse(pinned);
+    }
+
+    private boolean isPinnedInOtherRequest(MockHttpServletRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            interceptor.preHandle(request, response, null);
+            try {
+                return ReadYourWritesInterceptor.isPinnedToPrimary();
+            } finally {
+                interceptor.afterCompletion(request, response, null, null);
+            }
+        }).join();
+    }
+
+    private static MockHttpServletRequest request(String method, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/books");
+        if (clientId != null) {
+            request.addHeader(ReadYourWritesInterceptor.CLIENT_ID_HEADER, clientId);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,144 @@
+package api.book_list.configuration;
+
+import api.book_list.index.CatalogIndexLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs against two H2 databases standing in for the primary and the replica. Nothing is
+ * replicated between them, so every read shows which one served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "book-list.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "book-list.datasource.replica.username=sa",
+        "book-list.datasource.replica.password=password",
+        "book-list.datasource.replica.driverClassName=org.h2.Driver",
+        "book-list.datasource.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaDataSourceConfigTest {
+
+    private static final String BOOK_JSON = "{\"title\":\"Primary Book\", \"isbn\":\"978-83-01-00000-2\"}";
+
+    private final MockMvc mockMvc;
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final CatalogIndexLoader catalogIndexLoader;
+
+    @Autowired
+    public ReplicaDataSourceConfigTest(MockMvc mockMvc, @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                       @Qualifier("replicaDataSource") DataSource replicaDataSource, CatalogIndexLoader catalogIndexLoader) {
+        this.mockMvc = mockMvc;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.catalogIndexLoader = catalogIndexLoader;
+    }
+
+    /**
+     * Copies the schema Hibernate created on the primary to the replica before the
+     * application starts reading from it.
+     */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @EventListener(ContextRefreshedEvent.class)
+        void copySchema(ContextRefreshedEvent event) {
+            JdbcTemplate primary = new JdbcTemplate(event.getApplicationContext().getBean("primaryDataSource", DataSource.class));
+            JdbcTemplate replica = new JdbcTemplate(event.getApplicationContext().getBean("replicaDataSource", DataSource.class));
+            replica.execute("DROP ALL OBJECTS");
+            primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        }
+
+    }
+
+    @AfterEach
+    void teardown() {
+        for (JdbcTemplate jdbc : new JdbcTemplate[]{primary, replica}) {
+            jdbc.execute("DELETE FROM Book_Author");
+            jdbc.execute("DELETE FROM Author");
+            jdbc.execute("DELETE FROM Book");
+        }
+        catalogIndexLoader.load();
+    }
+
+    @Test
+    void testReadsGoToReplica() throws Exception {
+        // Given
+        replica.update("INSERT INTO Book (BookID, Title, ISBN, Version) VALUES (1, 'Replica Book', '978-83-01-00000-1', 0)");
+
+        // When & Then
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Replica Book"));
+    }
+
+    @Test
+    void testWritesGoToPrimaryAndWriterReadsOwnWrite() throws Exception {
+        // Given
+        String location = mockMvc.perform(post("/api/books")
+                        .header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOK_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"id\":(\\d+).*", "/api/books/$1");
+
+        // When & Then
+        mockMvc.perform(get("/api/books").header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get(location).header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Primary Book"));
+    }
+
+    @Test
+    void testCacheMissIsLoadedFromPrimaryWhileReplicaLags() throws Exception {
+        // Given
+        int id = Integer.parseInt(mockMvc.perform(post("/api/books")
+                        .header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOK_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"id\":(\\d+).*", "$1"));
+        replica.update("INSERT INTO Book (BookID, Title, ISBN, Version) VALUES (?, 'Primary Book', '978-83-01-00000-2', 0)", id);
+        mockMvc.perform(patch("/api/books/" + id)
+                        .header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed Book\"}"))
+                .andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(get("/api/books/" + id).header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed Book"));
+
+        // Then
+        mockMvc.perform(get("/api/books/" + id).header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed Book"));
+    }
+
+}
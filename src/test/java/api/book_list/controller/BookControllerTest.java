@@ -2,50 +2,85 @@ package api.book_list.controller;
 
 import api.book_list.entity.Author;
 import api.book_list.entity.Book;
+import api.book_list.index.CatalogIndexLoader;
+import api.book_list.index.CoAuthorGraph;
 import api.book_list.repository.AuthorRepository;
 import api.book_list.repository.BookRepository;
+import api.book_list.service.BookService;
+import io.micrometer.core.instrument.DistributionSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 public class BookControllerTest {
 
+    private static final int MISSING_ID = Integer.MAX_VALUE;
+
     private final MockMvc mockMvc;
+    private final BookService bookService;
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final JdbcTemplate jdbc;
+    private final Statistics statistics;
+    private final CatalogIndexLoader catalogIndexLoader;
+    private final CoAuthorGraph coAuthorGraph;
+    private final MeterRegistry meterRegistry;
+
+    private int authorId;
+    private int bookId;
 
     @Autowired
-    public BookControllerTest(MockMvc mockMvc, BookRepository bookRepository, AuthorRepository authorRepository, JdbcTemplate jdbc) {
+    public BookControllerTest(MockMvc mockMvc, BookService bookService, BookRepository bookRepository, AuthorRepository authorRepository,
+                              JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory, CatalogIndexLoader catalogIndexLoader,
+                              CoAuthorGraph coAuthorGraph, MeterRegistry meterRegistry) {
         this.mockMvc = mockMvc;
+        this.bookService = bookService;
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.jdbc = jdbc;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.catalogIndexLoader = catalogIndexLoader;
+        this.coAuthorGraph = coAuthorGraph;
+        this.meterRegistry = meterRegistry;
     }
 
     @BeforeEach
     void setup() {
-        jdbc.execute("ALTER TABLE Author ALTER COLUMN AuthorID RESTART WITH 1");
-        jdbc.execute("ALTER TABLE Book ALTER COLUMN BookID RESTART WITH 1");
-
-        jdbc.execute("INSERT INTO Author(FirstName, LastName) VALUES ('John', 'Doe')");
-        jdbc.execute("INSERT INTO Book(Title, ISBN) VALUES ('First Book', '978-83-01-00000-1')");
-        jdbc.execute("INSERT INTO Book_Author(BookID, AuthorID) VALUES (1, 1)");
+        Author author = authorRepository.save(new Author("John", "Doe"));
+        authorId = author.getId();
+        bookId = bookService.saveBook(new Book("First Book", "978-83-01-00000-1", Set.of(author))).getId();
     }
 
     @AfterEach
@@ -53,6 +88,7 @@ public class BookControllerTest {
         jdbc.execute("DELETE FROM Book_Author");
         jdbc.execute("DELETE FROM Author");
         jdbc.execute("DELETE FROM Book");
+        catalogIndexLoader.load();
     }
 
     @Test
@@ -69,6 +105,101 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.isbn").value("978-83-01-00000-2"));
     }
 
+    @Test
+    void testCreateBooks_Batch() throws Exception {
+        // Given
+        StringBuilder booksJson = new StringBuilder("[");
+        for (int i = 2; i <= 30; i++) {
+            booksJson.append(String.format("{\"title\":\"Book %d\", \"isbn\":\"978-83-01-000%02d-1\", \"authors\":[{\"id\":%d}]},", i, i, authorId));
+        }
+        booksJson.append("{\"title\":\"\", \"isbn\":\"978-83-01-00031-1\"},");
+        booksJson.append("{\"title\":\"Book 32\", \"isbn\":\"978-83-01-00032-1\", \"authors\":[{\"id\":" + MISSING_ID + "}]}]");
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(post("/api/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(booksJson.toString()))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.length()").value(31))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[29].status").value(400))
+                .andExpect(jsonPath("$[30].status").value(404))
+                .andExpect(jsonPath("$[30].error").value("Some authors were not found"));
+
+        assertEquals(30, bookRepository.count());
+        assertEquals(30, jdbc.queryForObject("SELECT COUNT(*) FROM Book_Author", Integer.class));
+        assertTrue(statistics.getPrepareStatementCount() <= 5);
+    }
+
+    @Test
+    void testImportBooks() throws Exception {
+        // Given
+        String csv = """
+                Title,ISBN,Authors
+                Second Book,978-83-01-00000-2,John Doe; Jane Smith
+                "Third Book, Revised",978-83-01-00000-3,Jane Smith
+                Duplicate Of First,978-83-01-00000-1,
+                ,978-83-01-00000-4,Jane Smith
+                Fifth Book,978-83-01-00000-5,Plato
+                Sixth Book,978-83-01-00000-6
+                "Seventh ""Quoted"" Book",978-83-01-00000-7,Adam Brown
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/books/import")
+                        .param("batchSize", "2")
+                        .contentType(BookController.TEXT_CSV_VALUE)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.rowsRead").value(7))
+                .andExpect(jsonPath("$.booksImported").value(3))
+                .andExpect(jsonPath("$.authorsCreated").value(2))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(4))
+                .andExpect(jsonPath("$.errors[1].row").value(5))
+                .andExpect(jsonPath("$.errors[2].row").value(6))
+                .andExpect(jsonPath("$.resumeFrom").doesNotExist());
+        assertEquals(4, bookRepository.count());
+        assertEquals(3, authorRepository.count());
+        assertEquals("Third Book, Revised", bookService.findBookByIsbn("978-83-01-00000-3").getTitle());
+        assertEquals("Seventh \"Quoted\" Book", bookService.findBookByIsbn("978-83-01-00000-7").getTitle());
+        assertEquals(2, bookService.findBookByIsbn("978-83-01-00000-2").getAuthors().size());
+    }
+
+    @Test
+    void testImportBooks_Resume() throws Exception {
+        // Given
+        String csv = """
+                title,isbn
+                Second Book,978-83-01-00000-2
+                Third Book,978-83-01-00000-3
+                Fourth Book,978-83-01-00000-4
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/books/import")
+                        .param("resumeFrom", "3")
+                        .contentType(BookController.TEXT_CSV_VALUE)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booksImported").value(1));
+        assertEquals(2, bookRepository.count());
+        assertEquals("Fourth Book", bookService.findBookByIsbn("978-83-01-00000-4").getTitle());
+    }
+
+    @Test
+    void testImportBooks_MissingColumns() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/books/import")
+                        .contentType(BookController.TEXT_CSV_VALUE)
+                        .content("title,authors\nSecond Book,John Doe\n"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCreateBook_EmptyTitle() throws Exception {
         // Given
@@ -111,19 +242,459 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$[2].title").value("Third Book"));
     }
 
+    @Test
+    void testGetAllBooks_Paginated() throws Exception {
+        // Given
+        Book secondBook = bookRepository.save(new Book("Second Book", "978-83-01-00000-2"));
+        bookRepository.save(new Book("Third Book", "978-83-01-00000-3"));
+        String nextCursor = String.valueOf(secondBook.getId());
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].title").value("Second Book"))
+                .andExpect(header().string("X-Next-Cursor", nextCursor));
+
+        mockMvc.perform(get("/api/books").param("after", nextCursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Third Book"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllBooks_InvalidLimit() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllBooks_ConstantStatementCount() throws Exception {
+        // Given
+        Author author = null;
+        for (int i = 2; i <= 20; i++) {
+            author = authorRepository.save(new Author("Author", "No. " + i));
+            bookService.saveBook(new Book("Book " + i, String.format("978-83-01-000%02d-1", i), Set.of(author)));
+        }
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(jsonPath("$[19].authorIds[0]").value(author.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testGetAllBooks_SparseFields() throws Exception {
+        // Given
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(bookId))
+                .andExpect(jsonPath("$[0].title").value("First Book"))
+                .andExpect(jsonPath("$[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$[0].authorIds").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/books").param("fields", "authorIds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").doesNotExist())
+                .andExpect(jsonPath("$[0].authorIds[0]").value(authorId));
+    }
+
+    @Test
+    void testGetAllBooks_UnknownField() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books").param("fields", "id,authors"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetBooksByAuthorId_ConstantStatementCount() throws Exception {
+        // Given
+        Author author = bookService.findAuthorById(authorId);
+        Author coAuthor = authorRepository.save(new Author("Jane", "Smith"));
+        for (int i = 2; i <= 20; i++) {
+            bookService.saveBook(new Book("Book " + i, String.format("978-83-01-000%02d-1", i), Set.of(author, coAuthor)));
+        }
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/authors/" + authorId + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(jsonPath("$[19].authorIds.length()").value(2));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testGetBooksByAuthorId_RecordsMetrics() throws Exception {
+        // Given
+        String uri = "/api/authors/{id}/books";
+        DistributionSummary statements = meterRegistry.summary("book-list.request.statements", "method", "GET", "uri", uri);
+        long requests = statements.count();
+        double statementTotal = statements.totalAmount();
+        statistics.clear();
+
+        // When
+        mockMvc.perform(get("/api/authors/" + authorId + "/books"))
+                .andExpect(status().isOk());
+
+        // Then
+        assertEquals(requests + 1, statements.count());
+        assertEquals(statistics.getPrepareStatementCount(), statements.totalAmount() - statementTotal);
+        assertNotNull(meterRegistry.find("book-list.service").tag("method", "findBooksByAuthorId").timer());
+    }
+
+    @Test
+    void testExportBooks() throws Exception {
+        // Given
+        Book secondBook = bookRepository.save(new Book("Second Book", "978-83-01-00000-2"));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":" + bookId + ",\"title\":\"First Book\",\"isbn\":\"978-83-01-00000-1\",\"authorIds\":[" + authorId + "]}\n" +
+                        "{\"id\":" + secondBook.getId() + ",\"title\":\"Second Book\",\"isbn\":\"978-83-01-00000-2\",\"authorIds\":[]}\n"));
+    }
+
+    @Test
+    void testSearchBooks() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author("Jane", "Smith"));
+        bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of(author)));
+        bookService.saveBook(new Book("Smith on Books", "978-83-01-00000-3"));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/search").param("q", "smith book"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Smith on Books"))
+                .andExpect(jsonPath("$[1].title").value("Second Book"));
+    }
+
+    @Test
+    void testSearchBooks_EmptyQuery() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetBookById() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/books/1"))
+        mockMvc.perform(get("/api/books/" + bookId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("First Book"))
                 .andExpect(jsonPath("$.isbn").value("978-83-01-00000-1"));
     }
 
+    @Test
+    void testGetBooksByIds() throws Exception {
+        // Given
+        int secondBookId = bookService.saveBook(new Book("Second Book", "978-83-01-00000-2")).getId();
+        bookService.findBookById(secondBookId);
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("ids", secondBookId + "," + MISSING_ID + "," + bookId + "," + secondBookId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.length()").value(2))
+                .andExpect(jsonPath("$.found[0].title").value("Second Book"))
+                .andExpect(jsonPath("$.found[1].title").value("First Book"))
+                .andExpect(jsonPath("$.found[1].authors[0].id").value(authorId))
+                .andExpect(jsonPath("$.missingIds[0]").value(MISSING_ID));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetBooksByIds_TooMany() throws Exception {
+        // Given
+        String ids = String.join(",", Collections.nCopies(1001, String.valueOf(bookId)));
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetBookById_SparseFields() throws Exception {
+        // Given
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).param("fields", "isbn"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.isbn").value("978-83-01-00000-1"))
+                .andExpect(jsonPath("$.title").doesNotExist())
+                .andExpect(jsonPath("$.authors").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        bookService.findBookById(bookId);
+        statistics.clear();
+        mockMvc.perform(get("/api/books/" + bookId).param("fields", "title,authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("First Book"))
+                .andExpect(jsonPath("$.isbn").doesNotExist())
+                .andExpect(jsonPath("$.authors[0].lastName").value("Doe"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetBookById_AnyMediaTypeIsJson() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("First Book"));
+    }
+
+    @Test
+    void testGetBookById_Cbor() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/books/" + bookId).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Then
+        JsonNode book = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("First Book", book.get("title").asText());
+        assertEquals(authorId, book.get("authors").get(0).get("id").asInt());
+    }
+
+    @Test
+    void testCreateBook_Cbor() throws Exception {
+        // Given
+        byte[] body = new CBORMapper().writeValueAsBytes(Map.of(
+                "title", "Second Book", "isbn", "978-83-01-00000-2", "authors", List.of(Map.of("id", authorId))));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/books")
+                        .contentType("application/cbor")
+                        .accept("application/cbor")
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Then
+        JsonNode book = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Second Book", book.get("title").asText());
+        assertEquals("Doe", book.get("authors").get(0).get("lastName").asText());
+    }
+
+    @Test
+    void testGetAllBooks_Smile() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/books").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        // Then
+        JsonNode books = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, books.size());
+        assertEquals("978-83-01-00000-1", books.get(0).get("isbn").asText());
+    }
+
+    @Test
+    void testCreateAndGetBook_Protobuf() throws Exception {
+        // Given
+        ProtobufSchema schema = ProtobufSchemaLoader.std.loadNative(new ClassPathResource("protobuf/book_list.proto").getURL()).forType("Book");
+        ProtobufMapper mapper = new ProtobufMapper();
+        byte[] body = mapper.writer(schema).writeValueAsBytes(Map.of(
+                "title", "Second Book", "isbn", "978-83-01-00000-2", "authors", List.of(Map.of("id", authorId))));
+
+        // When
+        MvcResult created = mockMvc.perform(post("/api/books")
+                        .contentType("application/x-protobuf")
+                        .accept("application/x-protobuf")
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn();
+        JsonNode book = mapper.readerFor(JsonNode.class).with(schema).readValue(created.getResponse().getContentAsByteArray());
+        MvcResult found = mockMvc.perform(get("/api/books/" + book.get("id").asInt()).accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertEquals("Doe", book.get("authors").get(0).get("lastName").asText());
+        assertArrayEquals(created.getResponse().getContentAsByteArray(), found.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void testGetAllBooks_ProtobufNotAcceptable() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testGetBookByIsbn() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/isbn/9788301000001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(bookId))
+                .andExpect(jsonPath("$.isbn").value("978-83-01-00000-1"));
+    }
+
+    @Test
+    void testGetBookByIsbn_NotFoundWithOneQuery() throws Exception {
+        // Given
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books/isbn/978-83-01-99999-1"))
+                .andExpect(status().isNotFound());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetBookByIsbn_Invalid() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/isbn/12345"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateBook_DuplicateIsbn() throws Exception {
+        // Given
+        String bookJson = "{\"title\":\"Second Book\", \"isbn\":\"9788301000001\"}";
+
+        // When & Then
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookJson))
+                .andExpect(status().isConflict());
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    void testGetBookById_NotModified() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/books/" + bookId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void testGetBookById_ETagByMediaType() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/cbor").header("If-None-Match", "\"0-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        mockMvc.perform(get("/api/books/" + bookId).accept(MediaType.APPLICATION_JSON).header("If-None-Match", "\"0-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .header("If-Match", "\"0-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    void testGetBookById_ETagOfEachWrittenMediaType() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/protobuf"))
+                .andExpect(content().contentType("application/protobuf"))
+                .andExpect(header().string("ETag", "\"0-protobuf\""));
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/x-protobuf"))
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andExpect(header().string("ETag", "\"0-x-protobuf\""));
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/x-jackson-smile"))
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"0-x-jackson-smile\""));
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/protobuf;q=0.5, application/cbor"))
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"0-cbor\""));
+        mockMvc.perform(get("/api/books/" + bookId).accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    @Test
+    void testGetBookById_NotModifiedOnlyForSameMediaType() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/protobuf").header("If-None-Match", "\"0-protobuf\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/books/" + bookId).accept("application/protobuf").header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-protobuf\""));
+    }
+
+    @Test
+    void testPatchBook_IfMatch() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Stale Title\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/books/" + bookId))
+                .andExpect(jsonPath("$.title").value("New Title"));
+    }
+
+    @Test
+    void testUpdateAuthor_IfMatchFailed() throws Exception {
+        // Given
+        String updatedAuthorJson = "{\"id\":" + authorId + ",\"firstName\":\"NewFirstName\", \"lastName\":\"NewLastName\"}";
+
+        // When & Then
+        mockMvc.perform(put("/api/authors")
+                        .header("If-Match", "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updatedAuthorJson))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testGetBooksByAuthorId() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/authors/1/books"))
+        mockMvc.perform(get("/api/authors/" + authorId + "/books"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].title").value("First Book"));
@@ -132,21 +703,75 @@ public class BookControllerTest {
     @Test
     void testGetBooksByAuthorId_AuthorNotFound() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/authors/999/books"))
+        mockMvc.perform(get("/api/authors/" + MISSING_ID + "/books"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetCoAuthorGraph() throws Exception {
+        // Given
+        Author coAuthor = authorRepository.save(new Author("Jane", "Smith"));
+        Author thirdAuthor = authorRepository.save(new Author("Adam", "Brown"));
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Second Book\", \"isbn\":\"978-83-01-00000-2\", \"authors\":[{\"id\":" + authorId + "},{\"id\":" + coAuthor.getId() + "}]}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Third Book\", \"isbn\":\"978-83-01-00000-3\", \"authors\":[{\"id\":" + coAuthor.getId() + "},{\"id\":" + thirdAuthor.getId() + "}]}"))
+                .andExpect(status().isCreated());
+        coAuthorGraph.pendingChangesApplied().join();
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/authors/" + authorId + "/graph/co-authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(coAuthor.getId()))
+                .andExpect(jsonPath("$[0].sharedBooks").value(1));
+        mockMvc.perform(get("/api/authors/" + authorId + "/graph/within").param("hops", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(thirdAuthor.getId()))
+                .andExpect(jsonPath("$[1].hops").value(2));
+        mockMvc.perform(get("/api/authors/" + coAuthor.getId() + "/graph/shared-books/" + thirdAuthor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(delete("/api/authors/" + thirdAuthor.getId()))
+                .andExpect(status().isNoContent());
+        coAuthorGraph.pendingChangesApplied().join();
+        mockMvc.perform(get("/api/authors/" + coAuthor.getId() + "/graph/shared-books/" + thirdAuthor.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetCoAuthorGraph_AuthorWithoutBooks() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author("Jane", "Smith"));
+
+        // When & Then
+        mockMvc.perform(get("/api/authors/" + author.getId() + "/graph/co-authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/authors/" + MISSING_ID + "/graph/co-authors"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/authors/" + authorId + "/graph/within").param("hops", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testUpdateBook() throws Exception {
         // Given
-        String updatedBookJson = "{\"id\":1,\"title\":\"New Title\",\"isbn\":\"978-83-01-00000-1\"}";
+        String updatedBookJson = "{\"id\":" + bookId + ",\"title\":\"New Title\",\"isbn\":\"978-83-01-00000-1\"}";
 
         // When & Then
         mockMvc.perform(put("/api/books")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(updatedBookJson))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.id").value(bookId))
                 .andExpect(jsonPath("$.title").value("New Title"));
     }
 
@@ -156,17 +781,55 @@ public class BookControllerTest {
         Author author = new Author("John", "Second");
         authorRepository.save(author);
 
-        String patchedBookJson = "{\"authors\":[{\"id\":1},{\"id\":2}]}";
+        String patchedBookJson = "{\"authors\":[{\"id\":" + authorId + "},{\"id\":" + author.getId() + "}]}";
 
         // When & Then
-        mockMvc.perform(patch("/api/books/1")
+        mockMvc.perform(patch("/api/books/" + bookId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(patchedBookJson))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("First Book"))
                 .andExpect(jsonPath("$.authors.length()").value(2))
-                .andExpect(jsonPath("$.authors[0].id").value(1))
-                .andExpect(jsonPath("$.authors[1].id").value(2));
+                .andExpect(jsonPath("$.authors[0].id").value(authorId))
+                .andExpect(jsonPath("$.authors[1].id").value(author.getId()));
+    }
+
+    @Test
+    void testPatchBook_StatementCount() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author("John", "Second"));
+        String patchedBookJson = "{\"title\":\"New Title\", \"authors\":[{\"id\":" + author.getId() + "}]}";
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patchedBookJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.title").value("New Title"))
+                .andExpect(jsonPath("$.authors.length()").value(1))
+                .andExpect(jsonPath("$.authors[0].id").value(author.getId()));
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPatchBook_NotFound() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/books/" + MISSING_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Title\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchBook_EmptyTitle() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"\"}"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -175,7 +838,7 @@ public class BookControllerTest {
         assertEquals(1, bookRepository.count());
 
         // When & Then
-        mockMvc.perform(delete("/api/books/1"))
+        mockMvc.perform(delete("/api/books/" + bookId))
                 .andExpect(status().isNoContent());
 
         assertEquals(0, bookRepository.count());
@@ -197,6 +860,22 @@ public class BookControllerTest {
         assertEquals(2, authorRepository.count());
     }
 
+    @Test
+    void testCreateAuthors_Batch() throws Exception {
+        // Given
+        String authorsJson = "[{\"firstName\":\"Jane\", \"lastName\":\"Smith\"}, {\"firstName\":\"\", \"lastName\":\"Wilson\"}]";
+
+        // When & Then
+        mockMvc.perform(post("/api/authors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(authorsJson))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].status").value(400));
+
+        assertEquals(2, authorRepository.count());
+    }
+
     @Test
     void testGetAllAuthors() throws Exception {
         // Given
@@ -218,16 +897,46 @@ public class BookControllerTest {
     @Test
     void testGetAuthorById() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/authors/1"))
+        mockMvc.perform(get("/api/authors/" + authorId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value("John"))
                 .andExpect(jsonPath("$.lastName").value("Doe"));
     }
 
+    @Test
+    void testGetAuthorsByIds() throws Exception {
+        // Given
+        int secondAuthorId = authorRepository.save(new Author("Jane", "Smith")).getId();
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/authors").param("ids", MISSING_ID + "," + secondAuthorId + "," + authorId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].lastName").value("Smith"))
+                .andExpect(jsonPath("$.found[1].lastName").value("Doe"))
+                .andExpect(jsonPath("$.missingIds[0]").value(MISSING_ID));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetAuthors_SparseFields() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/authors").param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(authorId))
+                .andExpect(jsonPath("$[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+
+        mockMvc.perform(get("/api/authors/" + authorId).param("fields", "firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.lastName").doesNotExist());
+    }
+
     @Test
     void testGetAuthorsByBookId() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/books/1/authors"))
+        mockMvc.perform(get("/api/books/" + bookId + "/authors"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].firstName").value("John"));
@@ -236,21 +945,21 @@ public class BookControllerTest {
     @Test
     void testGetAuthorsByBookId_BookNotFound() throws Exception {
         // When & Then
-        mockMvc.perform(get("/api/books/999/authors"))
+        mockMvc.perform(get("/api/books/" + MISSING_ID + "/authors"))
                 .andExpect(status().isNotFound());
     }
 
     @Test
     void testUpdateAuthor() throws Exception {
         // Given
-        String updatedAuthorJson = "{\"id\":1,\"firstName\":\"NewFirstName\", \"lastName\":\"NewLastName\"}";
+        String updatedAuthorJson = "{\"id\":" + authorId + ",\"firstName\":\"NewFirstName\", \"lastName\":\"NewLastName\"}";
 
         // When & Then
         mockMvc.perform(put("/api/authors")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(updatedAuthorJson))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.id").value(authorId))
                 .andExpect(jsonPath("$.firstName").value("NewFirstName"))
                 .andExpect(jsonPath("$.lastName").value("NewLastName"));
     }
@@ -261,7 +970,7 @@ public class BookControllerTest {
         String patchedAuthorJson = "{\"lastName\":\"NewLastName\"}";
 
         // When & Then
-        mockMvc.perform(patch("/api/authors/1")
+        mockMvc.perform(patch("/api/authors/" + authorId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(patchedAuthorJson))
                 .andExpect(status().isOk())
@@ -275,9 +984,34 @@ public class BookControllerTest {
         assertEquals(1, authorRepository.count());
 
         // When & Then
-        mockMvc.perform(delete("/api/authors/1"))
+        mockMvc.perform(delete("/api/authors/" + authorId))
                 .andExpect(status().isNoContent());
         assertEquals(0, authorRepository.count());
     }
 
+    @Test
+    void testDeleteAuthor_ConstantStatementCount() throws Exception {
+        // Given
+        Author author = bookService.findAuthorById(authorId);
+        for (int i = 2; i <= 20; i++) {
+            bookService.saveBook(new Book("Book " + i, String.format("978-83-01-000%02d-1", i), Set.of(author)));
+        }
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(delete("/api/authors/" + authorId))
+                .andExpect(status().isNoContent());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Book_Author", Integer.class));
+        assertEquals(20, bookRepository.count());
+    }
+
+    @Test
+    void testDeleteAuthor_NotFound() throws Exception {
+        // When & Then
+        mockMvc.perform(delete("/api/authors/" + MISSING_ID))
+                .andExpect(status().isNotFound());
+    }
+
 }
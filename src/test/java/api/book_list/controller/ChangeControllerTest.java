@@ -0,0 +1,268 @@
+package api.book_list.controller;
+
+import api.book_list.changes.ChangeFeed;
+import api.book_list.dto.ChangeEvent;
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import api.book_list.index.CatalogIndexLoader;
+import api.book_list.repository.AuthorRepository;
+import api.book_list.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ChangeControllerTest {
+
+    private final MockMvc mockMvc;
+    private final BookService bookService;
+    private final AuthorRepository authorRepository;
+    private final ChangeFeed changeFeed;
+    private final JdbcTemplate jdbc;
+    private final CatalogIndexLoader catalogIndexLoader;
+    private final PlatformTransactionManager transactionManager;
+
+    private int authorId;
+    private int bookId;
+    private long since;
+
+    @Autowired
+    public ChangeControllerTest(MockMvc mockMvc, BookService bookService, AuthorRepository authorRepository, ChangeFeed changeFeed,
+                                JdbcTemplate jdbc, CatalogIndexLoader catalogIndexLoader, PlatformTransactionManager transactionManager) {
+        this.mockMvc = mockMvc;
+        this.bookService = bookService;
+        this.authorRepository = authorRepository;
+        this.changeFeed = changeFeed;
+        this.jdbc = jdbc;
+        this.catalogIndexLoader = catalogIndexLoader;
+        this.transactionManager = transactionManager;
+    }
+
+    @BeforeEach
+    void setup() {
+        Author author = authorRepository.save(new Author("John", "Doe"));
+        authorId = author.getId();
+        bookId = bookService.saveBook(new Book("First Book", "978-83-01-00000-1", Set.of(author))).getId();
+        since = changeFeed.lastSequence();
+    }
+
+    @AfterEach
+    void setupAfterTransaction() {
+        jdbc.execute("DELETE FROM Book_Author");
+        jdbc.execute("DELETE FROM Author");
+        jdbc.execute("DELETE FROM Book");
+        catalogIndexLoader.load();
+    }
+
+    @Test
+    void testGetChanges_WithoutSinceReturnsCurrentSequence() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().string(BookController.NEXT_CURSOR_HEADER, String.valueOf(since)));
+    }
+
+    @Test
+    void testGetChanges_CreateUpdateAndDelete() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Second Book\", \"isbn\":\"978-83-01-00000-2\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(patch("/api/books/" + bookId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed Book\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/authors/" + authorId))
+                .andExpect(status().isNoContent());
+
+        // When & Then
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].seq").value(since + 1))
+                .andExpect(jsonPath("$[0].entity").value("BOOK"))
+                .andExpect(jsonPath("$[0].op").value("CREATED"))
+                .andExpect(jsonPath("$[0].version").value(0))
+                .andExpect(jsonPath("$[1].id").value(bookId))
+                .andExpect(jsonPath("$[1].op").value("UPDATED"))
+                .andExpect(jsonPath("$[1].version").value(1))
+                .andExpect(jsonPath("$[2].id").value(bookId))
+                .andExpect(jsonPath("$[2].op").value("UPDATED"))
+                .andExpect(jsonPath("$[2].version").doesNotExist())
+                .andExpect(jsonPath("$[3].entity").value("AUTHOR"))
+                .andExpect(jsonPath("$[3].id").value(authorId))
+                .andExpect(jsonPath("$[3].op").value("DELETED"))
+                .andExpect(header().string(BookController.NEXT_CURSOR_HEADER, String.valueOf(since + 4)));
+    }
+
+    @Test
+    void testGetChanges_Limit() throws Exception {
+        // Given
+        bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+        bookService.saveBook(new Book("Third Book", "978-83-01-00000-3", Set.of()));
+
+        // When & Then
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since)).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(BookController.NEXT_CURSOR_HEADER, String.valueOf(since + 1)));
+    }
+
+    @Test
+    void testGetChanges_RolledBackWriteIsNotPublished() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Duplicate\", \"isbn\":\"978-83-01-00000-1\", \"authors\":[{\"id\":" + Integer.MAX_VALUE + "}]}"))
+                .andExpect(status().isNotFound());
+
+        // When & Then
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testGetChanges_CursorAheadOfFeed() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since + 1000)))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void testGetChanges_InvalidLimit() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since)).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamChanges() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/api/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", since - 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+
+        // Then
+        awaitTrue(() -> contentOf(result).contains("id:" + (since + 1)));
+        String content = contentOf(result);
+        assertTrue(content.contains("id:" + since + "\nevent:change\n"));
+        assertTrue(content.contains("\"id\":" + bookId));
+        assertTrue(content.contains("\"op\":\"CREATED\""));
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void testChangesAreJournaled() throws Exception {
+        // Given
+        bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+
+        // When & Then
+        awaitTrue(() -> jdbc.queryForObject("SELECT COUNT(*) FROM ChangeLog WHERE Seq = ?", Integer.class, since + 1) == 1);
+        assertEquals("CREATED", jdbc.queryForObject("SELECT Op FROM ChangeLog WHERE Seq = ?", String.class, since + 1));
+    }
+
+    @Test
+    void testStreamChanges_OnlyJournaledEvents() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/api/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", since))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        jdbc.execute("ALTER TABLE ChangeLog RENAME TO ChangeLogPaused");
+
+        // When
+        try {
+            bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+            Thread.sleep(200);
+            assertFalse(contentOf(result).contains("id:" + (since + 1)));
+        } finally {
+            jdbc.execute("ALTER TABLE ChangeLogPaused RENAME TO ChangeLog");
+        }
+
+        // Then
+        awaitTrue(() -> contentOf(result).contains("id:" + (since + 1)));
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void testInstancesShareTheJournal() throws Exception {
+        // Given
+        ChangeFeed secondInstance = new ChangeFeed(jdbc, transactionManager, 16, 1000, Duration.ofMinutes(1), Duration.ofMillis(10),
+                Duration.ofSeconds(15), Duration.ofSeconds(5));
+        secondInstance.start();
+
+        // When
+        try {
+            bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+            secondInstance.publish(ChangeEvent.Entity.AUTHOR, authorId, ChangeEvent.Op.UPDATED, 1);
+
+            // Then
+            awaitTrue(() -> secondInstance.findChanges(since, 10).size() == 2);
+            awaitTrue(() -> changeFeed.findChanges(since, 10).size() == 2);
+            assertEquals(secondInstance.findChanges(since, 10), changeFeed.findChanges(since, 10));
+        } finally {
+            secondInstance.stop();
+        }
+    }
+
+    @Test
+    void testGetChanges_SkipsUnusedSequenceNumber() throws Exception {
+        // Given
+        jdbc.queryForObject("SELECT NEXT VALUE FOR ChangeLog_SEQ", Long.class);
+
+        // When
+        bookService.saveBook(new Book("Second Book", "978-83-01-00000-2", Set.of()));
+
+        // Then
+        awaitTrue(() -> !changeFeed.findChanges(since, 10).isEmpty());
+        assertEquals(since + 2, changeFeed.findChanges(since, 10).getFirst().seq());
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package api.book_list.index;
+
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookSearchIndexTest {
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    private Author haddon;
+
+    @BeforeEach
+    void setup() {
+        haddon = author(1, "Mark", "Haddon");
+        index.index(book(1, "The Curious Incident of the Dog in the Night-Time", haddon));
+        index.index(book(2, "A Spot of Bother", haddon));
+        index.index(book(3, "Test-Driven Java Development", author(2, "Viktor", "Farcič")));
+    }
+
+    @Test
+    void testSearch_TitleAndAuthorTerms() {
+        // When
+        List<Integer> result = index.search("haddon curious", 10);
+
+        // Then
+        assertEquals(List.of(1), result);
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchesFirst() {
+        // Given
+        index.index(book(4, "Mark My Words", author(3, "Jane", "Smith")));
+
+        // When
+        List<Integer> result = index.search("mark", 10);
+
+        // Then
+        assertEquals(List.of(4, 1, 2), result);
+    }
+
+    @Test
+    void testSearch_PrefixAndDiacritics() {
+        // When & Then
+        assertEquals(List.of(3), index.search("farcic dev", 10));
+        assertEquals(List.of(), index.search("farcic spot", 10));
+    }
+
+    @Test
+    void testIndexAuthor_RenameUpdatesBooks() {
+        // When
+        index.index(author(1, "Mark", "Twain"));
+
+        // Then
+        assertEquals(List.of(), index.search("haddon", 10));
+        assertEquals(List.of(1, 2), index.search("twain", 10));
+    }
+
+    @Test
+    void testRemoveBookAndAuthor() {
+        // When
+        index.removeBook(1);
+        index.removeAuthor(2);
+
+        // Then
+        assertEquals(List.of(2), index.search("haddon", 10));
+        assertTrue(index.search("viktor", 10).isEmpty());
+        assertEquals(List.of(3), index.search("java", 10));
+    }
+
+    @Test
+    void testIndex_IgnoresOlderVersions() {
+        // Given
+        Book renamedBook = book(2, "A Spot of Trouble", haddon);
+        renamedBook.setVersion(2);
+        Author renamedAuthor = author(1, "Mark", "Twain");
+        renamedAuthor.setVersion(1);
+        index.index(renamedBook);
+        index.index(renamedAuthor);
+
+        // When
+        Book olderBook = book(2, "A Spot of Bother", haddon);
+        olderBook.setVersion(1);
+        index.index(olderBook);
+
+        // Then
+        assertEquals(List.of(), index.search("bother", 10));
+        assertEquals(List.of(2), index.search("trouble", 10));
+        assertEquals(List.of(), index.search("haddon", 10));
+        assertEquals(List.of(1, 2), index.search("twain", 10));
+    }
+
+    @Test
+    void testIndex_IgnoresUpdatesOfRemovedBooksAndAuthors() {
+        // Given
+        index.removeBook(2);
+        index.removeAuthor(2);
+
+        // When
+        index.index(book(2, "A Spot of Bother", haddon));
+        index.index(book(4, "Java Testing", author(2, "Viktor", "Farcič")));
+
+        // Then
+        assertEquals(List.of(), index.search("bother", 10));
+        assertEquals(List.of(4), index.search("java testing", 10));
+        assertEquals(List.of(), index.search("viktor", 10));
+    }
+
+    private static Author author(int id, String firstName, String lastName) {
+        Author author = new Author(firstName, lastName);
+        author.setId(id);
+        return author;
+    }
+
+    private static Book book(int id, String title, Author author) {
+        Book book = new Book(title, "978-83-01-00000-1", Set.of(author));
+        book.setId(id);
+        return book;
+    }
+
+}
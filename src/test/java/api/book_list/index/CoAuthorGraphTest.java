@@ -0,0 +1,189 @@
+package api.book_list.index;
+
+import api.book_list.dto.AuthorDistance;
+import api.book_list.dto.CoAuthor;
+import api.book_list.entity.Author;
+import api.book_list.entity.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoAuthorGraphTest {
+
+    private final CoAuthorGraph graph = new CoAuthorGraph();
+
+    @AfterEach
+    void teardown() {
+        graph.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        // 1 - 2 - 3 - 4, with 1 and 2 sharing two books, and 5 on its own
+        graph.reset(new CoAuthorGraph.Builder()
+                .add(book(10, 1, 2))
+                .add(book(11, 2, 1))
+                .add(book(12, 2, 3))
+                .add(book(13, 3, 4))
+                .add(book(14, 5)));
+    }
+
+    @Test
+    void testFindCoAuthors_MostSharedBooksFirst() {
+        // When & Then
+        assertEquals(List.of(new CoAuthor(1, 2), new CoAuthor(3, 1)), graph.findCoAuthors(2));
+        assertEquals(List.of(), graph.findCoAuthors(5));
+        assertEquals(List.of(), graph.findCoAuthors(99));
+    }
+
+    @Test
+    void testFindAuthorsWithinHops() {
+        // When & Then
+        assertEquals(List.of(new AuthorDistance(2, 1)), graph.findAuthorsWithinHops(1, 1, 10));
+        assertEquals(List.of(new AuthorDistance(2, 1), new AuthorDistance(3, 2), new AuthorDistance(4, 3)),
+                graph.findAuthorsWithinHops(1, 5, 10));
+        assertEquals(List.of(new AuthorDistance(2, 1), new AuthorDistance(3, 2)), graph.findAuthorsWithinHops(1, 5, 2));
+    }
+
+    @Test
+    void testFindSharedBookIds() {
+        // When & Then
+        assertArrayEquals(new int[]{10, 11}, graph.findSharedBookIds(1, 2));
+        assertArrayEquals(new int[0], graph.findSharedBookIds(1, 3));
+        assertArrayEquals(new int[0], graph.findSharedBookIds(1, 99));
+    }
+
+    @Test
+    void testIndex_ReplacesLinksOfBook() {
+        // When
+        graph.index(List.of(book(13, 3, 5), book(15, 1, 4)));
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(new CoAuthor(2, 1), new CoAuthor(5, 1)), graph.findCoAuthors(3));
+        assertEquals(List.of(new CoAuthor(1, 1)), graph.findCoAuthors(4));
+        assertArrayEquals(new int[]{15}, graph.findSharedBookIds(4, 1));
+    }
+
+    @Test
+    void testRemoveBookAndAuthor() {
+        // When
+        graph.removeBook(11);
+        graph.removeAuthor(3);
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(new CoAuthor(1, 1)), graph.findCoAuthors(2));
+        assertFalse(graph.containsAuthor(3));
+        assertEquals(List.of(), graph.findCoAuthors(4));
+        assertTrue(graph.containsAuthor(5));
+    }
+
+    @Test
+    void testConcurrentWritersAllApplied() throws InterruptedException {
+        // Given
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int writer = w;
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    graph.index(List.of(book(1000 + writer * 100 + i, 5, 100 + writer)));
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // When
+        graph.pendingChangesApplied().join();
+        List<CoAuthor> coAuthors = graph.findCoAuthors(5);
+
+        // Then
+        assertEquals(List.of(new CoAuthor(100, 50), new CoAuthor(101, 50), new CoAuthor(102, 50), new CoAuthor(103, 50)), coAuthors);
+    }
+
+    @Test
+    void testIndex_AppliedInBackground() {
+        // Given
+        graph.index(List.of(book(15, 4, 5)));
+        graph.pendingChangesApplied().join();
+
+        // When
+        graph.removeBook(15);
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(), graph.findCoAuthors(5));
+        assertTrue(graph.pendingChangesApplied().isDone());
+    }
+
+    @Test
+    void testReset_KeepsPendingChanges() {
+        // Given
+        graph.index(List.of(book(15, 4, 5)));
+
+        // When
+        graph.reset(new CoAuthorGraph.Builder().add(book(10, 1, 2)));
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(new CoAuthor(5, 1)), graph.findCoAuthors(4));
+        assertEquals(List.of(new CoAuthor(2, 1)), graph.findCoAuthors(1));
+    }
+
+    @Test
+    void testIndex_IgnoresOlderVersions() {
+        // Given
+        Book newerBook = book(13, 3, 5);
+        newerBook.setVersion(2);
+        Book olderBook = book(13, 3, 4);
+        olderBook.setVersion(1);
+
+        // When
+        graph.index(List.of(newerBook));
+        graph.index(List.of(olderBook));
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(new CoAuthor(2, 1), new CoAuthor(5, 1)), graph.findCoAuthors(3));
+        assertFalse(graph.containsAuthor(4));
+    }
+
+    @Test
+    void testIndex_IgnoresUpdatesOfRemovedBooksAndAuthors() {
+        // Given
+        graph.removeBook(13);
+        graph.removeAuthor(1);
+        graph.pendingChangesApplied().join();
+
+        // When
+        graph.index(List.of(book(13, 3, 4), book(11, 2, 1)));
+        graph.pendingChangesApplied().join();
+
+        // Then
+        assertEquals(List.of(new CoAuthor(3, 1)), graph.findCoAuthors(2));
+        assertFalse(graph.containsAuthor(4));
+        assertFalse(graph.containsAuthor(1));
+    }
+
+    private static Book book(int id, int... authorIds) {
+        Set<Author> authors = Arrays.stream(authorIds).mapToObj(authorId -> {
+            Author author = new Author("First", "Last");
+            author.setId(authorId);
+            return author;
+        }).collect(Collectors.toSet());
+        Book book = new Book("Title", "978-83-01-00000-1", authors);
+        book.setId(id);
+        return book;
+    }
+
+}
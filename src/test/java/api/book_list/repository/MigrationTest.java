@@ -0,0 +1,105 @@
+package api.book_list.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database holding rows of the original schema, as created by BLAPI.sql, to the
+ * current version, on H2. The SQL Server migrations follow the same steps.
+ */
+public class MigrationTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new SimpleDriverDataSource(new org.h2.Driver(), "jdbc:h2:mem:migration-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        flyway("1").migrate();
+        jdbc.batchUpdate("INSERT INTO Author (FirstName, LastName) VALUES ('John', 'Doe')",
+                "INSERT INTO Author (AuthorID, FirstName, LastName) VALUES (120, 'Jane', 'Roe')",
+                "INSERT INTO Book (Title, ISBN) VALUES ('ISBN-13', '978-83-01-00000-1')",
+                "INSERT INTO Book (Title, ISBN) VALUES ('ISBN-10', '0-306-40615-2')",
+                "INSERT INTO Book (Title, ISBN) VALUES ('Not an ISBN', 'unknown')",
+                "INSERT INTO Book (Title, ISBN) VALUES ('Same ISBN', '9788301000001')",
+                "INSERT INTO Book_Author (BookID, AuthorID) VALUES (1, 1)",
+                "INSERT INTO Book_Author (BookID, AuthorID) VALUES (2, 120)");
+    }
+
+    @AfterEach
+    void teardown() {
+        jdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    void testMigrate_StartsSequencesAfterExistingIds() {
+        // When
+        flyway(null).migrate();
+
+        // Then
+        assertEquals(200, jdbc.queryForObject("SELECT NEXT VALUE FOR Author_SEQ", Integer.class));
+        assertEquals(100, jdbc.queryForObject("SELECT NEXT VALUE FOR Book_SEQ", Integer.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM Book_Author", Integer.class));
+    }
+
+    @Test
+    void testMigrate_AddsVersions() {
+        // When
+        flyway(null).migrate();
+
+        // Then
+        assertEquals(0, jdbc.queryForObject("SELECT MAX(Version) FROM Author", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT MAX(Version) FROM Book", Integer.class));
+    }
+
+    @Test
+    void testMigrate_BackfillsIsbnKeys() {
+        // When
+        flyway(null).migrate();
+
+        // Then
+        Map<String, String> keys = new HashMap<>();
+        jdbc.query("SELECT Title, IsbnKey FROM Book", row -> {
+            keys.put(row.getString(1), row.getString(2));
+        });
+        assertEquals("9788301000001", keys.get("ISBN-13"));
+        assertEquals("9780306406157", keys.get("ISBN-10"));
+        assertNull(keys.get("Not an ISBN"));
+        assertNull(keys.get("Same ISBN"));
+        assertEquals(4, keys.size());
+    }
+
+    @Test
+    void testMigrate_StartsChangeSequenceAfterJournal() {
+        // Given
+        flyway("9").migrate();
+        jdbc.update("INSERT INTO ChangeLog (Seq, Entity, EntityID, Op, ChangedAt) VALUES (41, 'BOOK', 1, 'DELETED', CURRENT_TIMESTAMP)");
+
+        // When
+        flyway(null).migrate();
+
+        // Then
+        jdbc.update("INSERT INTO ChangeLog (Entity, EntityID, Op, ChangedAt) VALUES ('BOOK', 2, 'DELETED', CURRENT_TIMESTAMP)");
+        assertEquals(42, jdbc.queryForObject("SELECT Seq FROM ChangeLog WHERE EntityID = 2", Long.class));
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2", "classpath:db/migration/common")
+                .target(target == null ? "latest" : target)
+                .load();
+    }
+
+}
@@ -0,0 +1,186 @@
+package api.book_list.repository;
+
+import api.book_list.index.CatalogIndexLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the statements the repositories send and fails on full table scans, so lookups
+ * without an index are caught before they reach production. H2 creates an index for every
+ * foreign key, which SQL Server does not; a plan may only use one of those if the migrations
+ * declare an index with the same leading column.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+    private static final int AUTHOR_ID = 1;
+    private static final int BOOK_ID = 1;
+    private static final String AUTHOR_INDEX = "IX_BOOK_AUTHOR_AUTHORID_BOOKID";
+    private static final Pattern DATA_STATEMENT = Pattern.compile("(?i)select|insert|update|delete");
+    private static final Pattern FOREIGN_KEY_INDEX = Pattern.compile("/\\* PUBLIC\\.(FK_\\w+_INDEX_\\w+):");
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogIndexLoader catalogIndexLoader;
+
+    @Autowired
+    public QueryPlanTest(BookRepository bookRepository, AuthorRepository authorRepository, JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate, CatalogIndexLoader catalogIndexLoader) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.jdbc = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogIndexLoader = catalogIndexLoader;
+    }
+
+    @BeforeEach
+    void setup() {
+        jdbc.batchUpdate("INSERT INTO Author (AuthorID, FirstName, LastName) VALUES (1, 'John', 'Doe')",
+                "INSERT INTO Author (AuthorID, FirstName, LastName) VALUES (2, 'Jane', 'Roe')",
+                "INSERT INTO Book (BookID, Title, ISBN, IsbnKey) VALUES (1, 'First Book', '978-83-01-00000-1', '9788301000001')",
+                "INSERT INTO Book (BookID, Title, ISBN, IsbnKey) VALUES (2, 'Second Book', '978-83-01-00000-2', '9788301000002')",
+                "INSERT INTO Book_Author (BookID, AuthorID) VALUES (1, 1)",
+                "INSERT INTO Book_Author (BookID, AuthorID) VALUES (2, 1)",
+                "INSERT INTO Book_Author (BookID, AuthorID) VALUES (2, 2)",
+                "ANALYZE");
+    }
+
+    @AfterEach
+    void teardown() {
+        jdbc.execute("DELETE FROM Book_Author");
+        jdbc.execute("DELETE FROM Author");
+        jdbc.execute("DELETE FROM Book");
+        catalogIndexLoader.load();
+    }
+
+    @Test
+    void testBooksOfAuthor_UseAuthorIndex() {
+        // When
+        List<String> plans = explain(() -> {
+            bookRepository.findSummariesByAuthorId(AUTHOR_ID);
+            bookRepository.findIdsByAuthorsId(AUTHOR_ID);
+        });
+
+        // Then
+        assertIndexed(plans);
+        assertTrue(plans.stream().allMatch(plan -> plan.contains(AUTHOR_INDEX)), String.join("\n", plans));
+    }
+
+    @Test
+    void testDeleteAuthor_UsesAuthorIndex() {
+        // When
+        List<String> plans = explain(() -> {
+            bookRepository.incrementVersionsByAuthorId(AUTHOR_ID);
+            bookRepository.deleteAuthorLinks(AUTHOR_ID);
+            authorRepository.deleteAndCountById(AUTHOR_ID);
+        });
+
+        // Then
+        assertIndexed(plans);
+    }
+
+    @Test
+    void testAuthorsOfBook_UsePrimaryKey() {
+        // When
+        List<String> plans = explain(() -> {
+            authorRepository.findSummariesByBookId(BOOK_ID);
+            bookRepository.findAuthorLinks(List.of(BOOK_ID));
+            bookRepository.replaceAuthorLinks(BOOK_ID, List.of(AUTHOR_ID));
+        });
+
+        // Then
+        assertIndexed(plans);
+    }
+
+    @Test
+    void testKeyLookups_UseIndexes() {
+        // When
+        List<String> plans = explain(() -> {
+            bookRepository.findByIsbnKey("9788301000001");
+            bookRepository.findExistingIsbnKeys(List.of("9788301000001", "9788301000002"));
+            bookRepository.findVersionById(BOOK_ID);
+            bookRepository.findByIdInOrderByIdAsc(List.of(BOOK_ID));
+            bookRepository.findSummariesAfter(0, Limit.of(10));
+            bookRepository.updateColumns(BOOK_ID, List.of(0), "First Book, Revised", null);
+            authorRepository.findVersionById(AUTHOR_ID);
+            authorRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(10));
+        });
+
+        // Then
+        assertIndexed(plans);
+    }
+
+    /**
+     * Runs the repository calls in a transaction that is rolled back and returns the plans of
+     * the statements they sent, as collected by H2's query statistics. These cover the whole
+     * database, so the journal reads of the change feed, which tails it meanwhile, are left out.
+     */
+    private List<String> explain(Runnable repositoryCalls) {
+        List<String> statements;
+        jdbc.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repositoryCalls.run();
+                status.setRollbackOnly();
+            });
+            statements = jdbc.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbc.execute("SET QUERY_STATISTICS FALSE");
+        }
+        return statements.stream()
+                .filter(sql -> DATA_STATEMENT.matcher(sql).lookingAt() && !sql.contains("INFORMATION_SCHEMA") && !sql.contains("ChangeLog"))
+                .map(this::explain)
+                .toList();
+    }
+
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setInt(i, 1);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private void assertIndexed(List<String> plans) {
+        assertFalse(plans.isEmpty());
+        List<String> declaredLeadingColumns = jdbc.queryForList("SELECT c.TABLE_NAME || '.' || c.COLUMN_NAME"
+                + " FROM INFORMATION_SCHEMA.INDEX_COLUMNS c WHERE c.TABLE_SCHEMA = 'PUBLIC' AND c.ORDINAL_POSITION = 1"
+                + " AND c.INDEX_NAME NOT LIKE 'FK\\_%\\_INDEX\\_%'", String.class);
+        for (String plan : plans) {
+            assertFalse(plan.contains(".tableScan"), plan);
+            Matcher index = FOREIGN_KEY_INDEX.matcher(plan);
+            while (index.find()) {
+                String leadingColumn = jdbc.queryForObject("SELECT TABLE_NAME || '.' || COLUMN_NAME"
+                        + " FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE INDEX_NAME = ? AND ORDINAL_POSITION = 1",
+                        String.class, index.group(1));
+                assertTrue(declaredLeadingColumns.contains(leadingColumn), "No index led by " + leadingColumn + ": " + plan);
+            }
+        }
+    }
+
+}
@@ -1,20 +1,39 @@
 package api.book_list.service;
 
+import api.book_list.dto.AuthorSummary;
+import api.book_list.dto.BatchItemResult;
+import api.book_list.dto.BookSummary;
+import api.book_list.dto.CursorPage;
 import api.book_list.entity.Author;
 import api.book_list.entity.Book;
+import api.book_list.exception.NotFoundException;
+import api.book_list.index.CatalogIndexLoader;
 import api.book_list.repository.AuthorRepository;
 import api.book_list.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,27 +41,39 @@ import static org.junit.jupiter.api.Assertions.*;
 @ActiveProfiles("test")
 public class BookServiceImplTest {
 
+    private static final int MISSING_ID = Integer.MAX_VALUE;
+
     private final BookService bookService;
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final JdbcTemplate jdbc;
+    private final MeterRegistry meterRegistry;
+    private final CatalogIndexLoader catalogIndexLoader;
+    private final CacheManager cacheManager;
+    private final Statistics statistics;
+
+    private int authorId;
+    private int bookId;
 
     @Autowired
-    public BookServiceImplTest(BookService bookService, BookRepository bookRepository, AuthorRepository authorRepository, JdbcTemplate jdbcTemplate) {
+    public BookServiceImplTest(BookService bookService, BookRepository bookRepository, AuthorRepository authorRepository, JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry, CatalogIndexLoader catalogIndexLoader, CacheManager cacheManager,
+                               EntityManagerFactory entityManagerFactory) {
         this.bookService = bookService;
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.jdbc = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.catalogIndexLoader = catalogIndexLoader;
+        this.cacheManager = cacheManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
     }
 
     @BeforeEach
     void setup() {
-        jdbc.execute("ALTER TABLE Author ALTER COLUMN AuthorID RESTART WITH 1");
-        jdbc.execute("ALTER TABLE Book ALTER COLUMN BookID RESTART WITH 1");
-
-        jdbc.execute("INSERT INTO Author(FirstName, LastName) VALUES ('John', 'Doe')");
-        jdbc.execute("INSERT INTO Book(Title, ISBN) VALUES ('First Book', '978-83-01-00000-1')");
-        jdbc.execute("INSERT INTO Book_Author(BookID, AuthorID) VALUES (1, 1)");
+        Author author = authorRepository.save(new Author("John", "Doe"));
+        authorId = author.getId();
+        bookId = bookService.saveBook(new Book("First Book", "978-83-01-00000-1", Set.of(author))).getId();
     }
 
     @AfterEach
@@ -50,13 +81,14 @@ public class BookServiceImplTest {
         jdbc.execute("DELETE FROM Book_Author");
         jdbc.execute("DELETE FROM Author");
         jdbc.execute("DELETE FROM Book");
+        catalogIndexLoader.load();
     }
 
     @Test
     void testSaveBook() {
         // Given
         Book book = new Book("Second Book", "978-83-01-00000-2",
-                Set.of(bookService.findAuthorById(1)));
+                Set.of(bookService.findAuthorById(authorId)));
 
         // When
         Book savedBook = bookService.saveBook(book);
@@ -72,9 +104,9 @@ public class BookServiceImplTest {
     @Test
     void testSaveBook_SomeAuthorsNotFound() {
         // Given
-        Author author1 = bookService.findAuthorById(1);
+        Author author1 = bookService.findAuthorById(authorId);
         Author author2 = new Author();
-        author2.setId(999);
+        author2.setId(MISSING_ID);
         Book book = new Book("Second Book", "978-83-01-00000-2",
                 Set.of(author1, author2));
 
@@ -85,20 +117,189 @@ public class BookServiceImplTest {
         assertFalse(bookRepository.existsById(book.getId()));
     }
 
+    @Test
+    void testSaveBooks() {
+        // Given
+        Author missingAuthor = new Author();
+        missingAuthor.setId(MISSING_ID);
+        List<Book> books = List.of(
+                new Book("Second Book", "978-83-01-00000-2", Set.of(bookService.findAuthorById(authorId))),
+                new Book("", "978-83-01-00000-3"),
+                new Book("Fourth Book", "978-83-01-00000-4", Set.of(missingAuthor)));
+
+        // When
+        List<BatchItemResult> results = bookService.saveBooks(books);
+
+        // Then
+        assertEquals(201, results.get(0).status());
+        assertTrue(bookRepository.existsById(results.get(0).id()));
+        assertEquals(400, results.get(1).status());
+        assertEquals(404, results.get(2).status());
+        assertEquals(2, bookRepository.count());
+    }
+
     @Test
     void testFindBookById() {
         // When
-        Book foundBook = bookService.findBookById(1);
+        Book foundBook = bookService.findBookById(bookId);
 
         // Then
         assertNotNull(foundBook);
         assertEquals("First Book", foundBook.getTitle());
     }
 
+    @Test
+    void testSaveBooks_DuplicateIsbn() {
+        // Given
+        List<Book> books = List.of(
+                new Book("Second Book", "9788301000001"),
+                new Book("Third Book", "9788301000002"),
+                new Book("Fourth Book", "978-83-01-00000-2"));
+
+        // When
+        List<BatchItemResult> results = bookService.saveBooks(books);
+
+        // Then
+        assertEquals(409, results.get(0).status());
+        assertEquals(201, results.get(1).status());
+        assertEquals(409, results.get(2).status());
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    void testSaveBooks_IsbnNotIndexed() {
+        // Given
+        jdbc.update("INSERT INTO Book (BookID, Title, ISBN, IsbnKey) VALUES (1, 'Created Elsewhere', '978-83-01-00001-1', '9788301000011')");
+
+        // When
+        List<BatchItemResult> results = bookService.saveBooks(List.of(
+                new Book("Second Book", "978-83-01-00001-1"),
+                new Book("Third Book", "978-83-01-00000-2")));
+
+        // Then
+        assertEquals(409, results.get(0).status());
+        assertEquals(201, results.get(1).status());
+    }
+
+    @Test
+    void testFindBookByIsbn_Isbn10() {
+        // Given
+        int id = bookService.saveBook(new Book("Second Book", "0-306-40615-2")).getId();
+
+        // When
+        Book foundBook = bookService.findBookByIsbn("978-0-306-40615-7");
+
+        // Then
+        assertEquals(id, foundBook.getId());
+        assertEquals(id, bookService.findBookByIsbn("0306406152").getId());
+    }
+
+    @Test
+    void testFindBookByIsbn_BookDoesNotExist() {
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookByIsbn("978-83-01-99999-1"));
+    }
+
+    @Test
+    void testFindBookByIsbn_NotIndexed() {
+        // Given
+        jdbc.update("INSERT INTO Book (BookID, Title, ISBN, IsbnKey) VALUES (1, 'Created Elsewhere', '978-83-01-00001-1', '9788301000011')");
+
+        // When
+        Book foundBook = bookService.findBookByIsbn("978-83-01-00001-1");
+
+        // Then
+        assertEquals(1, foundBook.getId());
+    }
+
+    @Test
+    void testFindBookByIsbn_IndexedKeyChanged() {
+        // Given
+        jdbc.update("UPDATE Book SET ISBN = '978-83-01-00001-1', IsbnKey = '9788301000011' WHERE BookID = ?", bookId);
+        Objects.requireNonNull(cacheManager.getCache("books")).evict(bookId);
+        bookService.findBookById(bookId);
+
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookByIsbn("978-83-01-00000-1"));
+        assertEquals(bookId, bookService.findBookByIsbn("978-83-01-00001-1").getId());
+    }
+
+    @Test
+    void testFindBookById_Cached() {
+        // Given
+        double hits = cacheGets("books", "hit");
+
+        // When
+        Book firstRead = bookService.findBookById(bookId);
+        Book secondRead = bookService.findBookById(bookId);
+
+        // Then
+        assertSame(firstRead, secondRead);
+        assertEquals(hits + 1, cacheGets("books", "hit"));
+    }
+
+    @Test
+    void testFindBookById_ConcurrentMissesShareOneFetch() throws Exception {
+        // Given
+        statistics.clear();
+        bookService.findBookById(bookId);
+        long statementsPerFetch = statistics.getPrepareStatementCount();
+        Objects.requireNonNull(cacheManager.getCache("books")).evict(bookId);
+        statistics.clear();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<Book>> reads = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    return bookService.findBookById(bookId);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Then
+        for (Future<Book> read : reads) {
+            assertSame(reads.getFirst().get(), read.get());
+        }
+        assertEquals(statementsPerFetch, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testChangeAuthor_EvictsCachedBooks() {
+        // Given
+        bookService.findBookById(bookId);
+        bookService.findAuthorById(authorId);
+
+        // When
+        bookService.changeAuthor(authorId, new Author(null, "NewLastName"), null);
+
+        // Then
+        Book book = bookService.findBookById(bookId);
+        assertEquals("NewLastName", book.getAuthors().iterator().next().getLastName());
+        assertEquals("NewLastName", bookService.findAuthorById(authorId).getLastName());
+    }
+
     @Test
     void testFindBookById_BookDoesNotExist() {
         // When & Then
-        assertThrows(EntityNotFoundException.class, () -> bookService.findBookById(999));
+        assertThrows(EntityNotFoundException.class, () -> bookService.findBookById(MISSING_ID));
+    }
+
+    @Test
+    void testFindBookById_MissCostsOneStatementAndNoStackTrace() {
+        // Given
+        statistics.clear();
+
+        // When
+        NotFoundException thrown = assertThrows(NotFoundException.class, () -> bookService.findBookById(MISSING_ID));
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, thrown.getStackTrace().length);
+        assertEquals("No result found for book with ID: " + MISSING_ID, thrown.getMessage());
     }
 
     @Test
@@ -117,47 +318,115 @@ public class BookServiceImplTest {
         assertEquals(3, books.size());
     }
 
+    @Test
+    void testFindBooks_KeysetPage() {
+        // Given
+        bookRepository.save(new Book("Second Book", "978-83-01-00000-2"));
+        bookRepository.save(new Book("Third Book", "978-83-01-00000-3"));
+
+        // When
+        CursorPage<BookSummary> firstPage = bookService.findBooks(0, 2);
+        CursorPage<BookSummary> lastPage = bookService.findBooks(firstPage.nextCursor(), 2);
+
+        // Then
+        assertEquals(2, firstPage.content().size());
+        assertArrayEquals(new int[]{authorId}, firstPage.content().get(0).authorIds());
+        assertEquals(firstPage.content().get(1).id(), firstPage.nextCursor());
+        assertEquals(1, lastPage.content().size());
+        assertEquals("Third Book", lastPage.content().get(0).title());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void testFindAuthors_KeysetPage() {
+        // Given
+        authorRepository.save(new Author("Jane", "Smith"));
+
+        // When
+        CursorPage<Author> page = bookService.findAuthors(authorId, 10);
+
+        // Then
+        assertEquals(1, page.content().size());
+        assertEquals("Jane", page.content().get(0).getFirstName());
+        assertNull(page.nextCursor());
+    }
+
     @Test
     void testFindBooksByAuthorId() {
         // When
-        List<Book> books = bookService.findBooksByAuthorId(1);
+        List<BookSummary> books = bookService.findBooksByAuthorId(authorId);
 
         // Then
         assertEquals(1, books.size());
-        assertEquals("First Book", books.get(0).getTitle());
+        assertEquals("First Book", books.get(0).title());
+        assertArrayEquals(new int[]{authorId}, books.get(0).authorIds());
     }
 
     @Test
     void testFindBooksByAuthorId_AuthorNotFound() {
         // When & Then
         EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () ->
-                bookService.findBooksByAuthorId(999));
+                bookService.findBooksByAuthorId(MISSING_ID));
 
-        assertEquals("No result found for author with ID: 999", thrown.getMessage());
+        assertEquals("No result found for author with ID: " + MISSING_ID, thrown.getMessage());
     }
 
     @Test
-    void testChangeBook() {
+    void testFindBooksByAuthorId_AuthorWithoutBooks() {
         // Given
-        Book existingBook = bookService.findBookById(1);
+        int otherAuthorId = authorRepository.save(new Author("Jane", "Smith")).getId();
 
-        Book editedBook = new Book("New Title", null,
-                Set.of(bookService.findAuthorById(1)));
+        // When
+        List<BookSummary> books = bookService.findBooksByAuthorId(otherAuthorId);
+
+        // Then
+        assertTrue(books.isEmpty());
+    }
+
+    @Test
+    void testChangeBook() {
+        // Given
+        Author coAuthor = authorRepository.save(new Author("Jane", "Smith"));
+        Book editedBook = new Book("New Title", null, Set.of(coAuthor));
 
         // When
-        bookService.changeBook(existingBook, editedBook);
+        Book changedBook = bookService.changeBook(bookId, editedBook, List.of(0));
 
         // Then
-        Book updatedBook = bookService.findBookById(existingBook.getId());
+        Book updatedBook = bookService.findBookById(bookId);
+        assertEquals(1, changedBook.getVersion());
         assertEquals("New Title", updatedBook.getTitle());
         assertEquals("978-83-01-00000-1", updatedBook.getIsbn());
-        assertEquals(1, updatedBook.getAuthors().size());
+        assertEquals(Set.of(coAuthor.getId()), updatedBook.getAuthors().stream().map(Author::getId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testChangeBook_VersionMismatch() {
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                bookService.changeBook(bookId, new Book("New Title", null), List.of(1)));
+        assertEquals("First Book", bookService.findBookById(bookId).getTitle());
+    }
+
+    @Test
+    void testReplaceBook_SomeAuthorsNotFound() {
+        // Given
+        Author missingAuthor = new Author();
+        missingAuthor.setId(MISSING_ID);
+        Book book = new Book("New Title", "978-83-01-00000-1", Set.of(missingAuthor));
+        book.setId(bookId);
+
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> bookService.replaceBook(book, null));
+        Book unchangedBook = bookService.findBookById(bookId);
+        assertEquals("First Book", unchangedBook.getTitle());
+        assertEquals(1, unchangedBook.getAuthors().size());
     }
 
     @Test
     void testDeleteBook() {
         // Given
-        Book deletedBook = bookService.findBookById(1);
+        Book deletedBook = bookService.findBookById(bookId);
         assertEquals(1, authorRepository.count());
         assertEquals(1, bookRepository.count());
 
@@ -187,7 +456,7 @@ public class BookServiceImplTest {
     @Test
     void testFindAuthorById_AuthorExists() {
         // When
-        Author foundAuthor = bookService.findAuthorById(1);
+        Author foundAuthor = bookService.findAuthorById(authorId);
 
         // Then
         assertNotNull(foundAuthor);
@@ -198,7 +467,7 @@ public class BookServiceImplTest {
     @Test
     void testFindAuthorById_AuthorDoesNotExist() {
         // When & Then
-        assertThrows(EntityNotFoundException.class, () -> bookService.findAuthorById(999));
+        assertThrows(EntityNotFoundException.class, () -> bookService.findAuthorById(MISSING_ID));
     }
 
     @Test
@@ -221,49 +490,74 @@ public class BookServiceImplTest {
     @Test
     void testFindAuthorsByBookId() {
         // When
-        List<Author> authors = bookService.findAuthorsByBookId(1);
+        List<AuthorSummary> authors = bookService.findAuthorsByBookId(bookId);
 
         // Then
         assertEquals(1, authors.size());
-        assertEquals("John", authors.get(0).getFirstName());
+        assertEquals("John", authors.get(0).firstName());
     }
 
     @Test
     void testFindAuthorsByBookId_BookNotFound() {
         // When & Then
         EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () ->
-                bookService.findAuthorsByBookId(999));
+                bookService.findAuthorsByBookId(MISSING_ID));
+
+        assertEquals("No result found for book with ID: " + MISSING_ID, thrown.getMessage());
+    }
+
+    @Test
+    void testFindAuthorsByBookId_MissCostsOneStatement() {
+        // Given
+        statistics.clear();
+
+        // When
+        assertThrows(NotFoundException.class, () -> bookService.findAuthorsByBookId(MISSING_ID));
 
-        assertEquals("No result found for book with ID: 999", thrown.getMessage());
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
     }
 
     @Test
     void testChangeAuthor() {
         // Given
-        Author existingAuthor = bookService.findAuthorById(1);
         Author editedAuthor = new Author(null, "NewLastName");
 
         // When
-        bookService.changeAuthor(existingAuthor, editedAuthor);
+        Author changedAuthor = bookService.changeAuthor(authorId, editedAuthor, null);
 
         // Then
-        assertEquals("John", existingAuthor.getFirstName());
-        assertEquals("NewLastName", existingAuthor.getLastName());
+        assertEquals("John", changedAuthor.getFirstName());
+        assertEquals("NewLastName", changedAuthor.getLastName());
+        assertEquals(1, changedAuthor.getVersion());
     }
 
     @Test
     void testDeleteAuthor() {
         // Given
-        Author author = bookService.findAuthorById(1);
+        bookService.findBookById(bookId);
         assertEquals(1, authorRepository.count());
         assertEquals(1, bookRepository.count());
 
         // When
-        bookService.deleteAuthor(author);
+        bookService.deleteAuthor(authorId);
 
         // Then
         assertEquals(0, authorRepository.count());
-        assertEquals(1, bookRepository.count());
+        Book book = bookService.findBookById(bookId);
+        assertTrue(book.getAuthors().isEmpty());
+        assertEquals(1, book.getVersion());
+        assertTrue(bookService.searchBooks("doe", 10).isEmpty());
+    }
+
+    @Test
+    void testDeleteAuthor_AuthorDoesNotExist() {
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> bookService.deleteAuthor(MISSING_ID));
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
     }
 
 }